@@ -14,6 +14,10 @@
  * limitations under the License.
  */
 
+plugins {
+    id("me.champeau.jmh") version "0.6.8"
+}
+
 dependencies {
     implementation(files("D:\\workspace\\NatroxMC\\Common\\build\\libs\\common.jar"))
     implementation(files("D:\\workspace\\NatroxMC\\Eventbus\\build\\libs\\eventbus.jar"))
@@ -30,6 +34,12 @@ dependencies {
     testImplementation("org.mockito:mockito-core:4.8.0")
 }
 
+jmh {
+    warmupIterations.set(2)
+    iterations.set(5)
+    fork.set(1)
+}
+
 tasks.withType<Jar> {
     archiveFileName.set("pipeline.jar")
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.document.serialize;
+
+import de.natrox.pipeline.document.DocumentData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(Threads.MAX)
+public class DocumentSerializerBenchmark {
+
+    @Param({"pooled", "synchronized"})
+    private String mode;
+
+    private DocumentSerializer documentSerializer;
+    private DocumentData documentData;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        this.documentSerializer = this.mode.equals("pooled")
+            ? DocumentSerializer.create()
+            : DocumentSerializer.createSynchronized();
+
+        this.documentData = DocumentData
+            .create("uniqueId", UUID.randomUUID())
+            .append("name", "Eric")
+            .append("onlineTime", 3_600_000L)
+            .append("lastJoin", System.currentTimeMillis())
+            .append("friends", List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()))
+            .append("address.street", "montana-avenue")
+            .append("address.number", 42);
+        this.bytes = this.documentSerializer.write(this.documentData);
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return this.documentSerializer.write(this.documentData);
+    }
+
+    @Benchmark
+    public DocumentData read() {
+        return this.documentSerializer.read(this.bytes);
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.object.mapping;
+
+import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.object.ObjectData;
+import de.natrox.pipeline.object.annotation.Properties;
+import de.natrox.pipeline.repository.Pipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ObjectMapperBenchmark {
+
+    @Param({"generated", "methodHandles"})
+    private String mode;
+
+    private ObjectMapper<OnlineTimeData> objectMapper;
+    private OnlineTimeData objectData;
+    private DocumentData documentData;
+    private Object[] values;
+
+    @Setup
+    public void setup() {
+        this.objectMapper = new ObjectMapperImpl<>(OnlineTimeData.class, this.mode.equals("generated"));
+        this.objectData = new OnlineTimeData(null);
+        this.objectMapper.load(this.objectData, DocumentData
+            .create("uniqueId", UUID.randomUUID())
+            .append("onlineTime", 3_600_000L)
+            .append("lastJoin", System.currentTimeMillis())
+        );
+        this.documentData = this.objectMapper.save(this.objectData);
+        this.values = this.objectMapper.values(this.objectData);
+    }
+
+    @Benchmark
+    public DocumentData save() {
+        return this.objectMapper.save(this.objectData);
+    }
+
+    @Benchmark
+    public OnlineTimeData load() {
+        this.objectMapper.load(this.objectData, this.documentData);
+        return this.objectData;
+    }
+
+    @Benchmark
+    public Object[] values() {
+        return this.objectMapper.values(this.objectData);
+    }
+
+    @Benchmark
+    public OnlineTimeData loadValues() {
+        this.objectMapper.load(this.objectData, this.values);
+        return this.objectData;
+    }
+
+    // Same shape as the OnlineTimeData of the demo
+    @Properties(identifier = "OnlineTimeData")
+    public static class OnlineTimeData extends ObjectData {
+
+        private Long onlineTime;
+        private Long lastJoin;
+
+        public OnlineTimeData(Pipeline pipeline) {
+            super(pipeline);
+        }
+    }
+}
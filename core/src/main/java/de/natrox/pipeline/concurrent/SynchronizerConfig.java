@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.concurrent;
+
+import de.natrox.common.builder.IBuilder;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+/**
+ * Configures the executor a pipeline shares between all of its repositories to copy documents between the storage and
+ * the cache parts in the background, for example to fill the local cache after a document was loaded from storage.
+ */
+@ApiStatus.Experimental
+public sealed interface SynchronizerConfig permits SynchronizerConfigImpl {
+
+    static @NotNull Builder builder() {
+        return new SynchronizerConfigImpl.BuilderImpl();
+    }
+
+    static @NotNull SynchronizerConfig defaults() {
+        return SynchronizerConfigImpl.DEFAULT;
+    }
+
+    int threads();
+
+    int queueCapacity();
+
+    boolean virtualThreads();
+
+    @NotNull RejectionPolicy rejectionPolicy();
+
+    /**
+     * What happens to a synchronization once all threads are busy and the queue is full.
+     * <p>
+     * Synchronizations are mostly scheduled by reads, a cache miss schedules the fill of the caches it missed and a
+     * read after the refresh time schedules the reload. With {@link #CALLER_RUNS} and {@link #BLOCK} an overloaded
+     * executor therefore makes these reads wait for cache and storage I/O of their own.
+     */
+    enum RejectionPolicy {
+        /**
+         * The thread that scheduled the synchronization runs it itself, which slows down the callers while the
+         * executor is overloaded. A read then writes the caches, or reloads the document it refreshes, on its own
+         * thread before it returns. This is the default.
+         */
+        CALLER_RUNS,
+        /**
+         * The thread that scheduled the synchronization waits until the queue has space again. A read then blocks
+         * until one of the queued synchronizations finished.
+         */
+        BLOCK,
+        /**
+         * The synchronization is dropped, the affected document is then simply read from the next part again.
+         */
+        DISCARD
+    }
+
+    @ApiStatus.Experimental
+    sealed interface Builder extends IBuilder<SynchronizerConfig> permits SynchronizerConfigImpl.BuilderImpl {
+
+        /**
+         * @param threads the maximum number of synchronizations that run at the same time, defaults to the number of
+         *                available processors
+         */
+        @NotNull Builder threads(@Range(from = 1, to = Integer.MAX_VALUE) int threads);
+
+        /**
+         * @param queueCapacity the maximum number of synchronizations that wait for a thread, defaults to 10000
+         */
+        @NotNull Builder queueCapacity(@Range(from = 0, to = Integer.MAX_VALUE) int queueCapacity);
+
+        /**
+         * Runs the synchronizations on virtual threads instead of platform threads. The number of threads and the
+         * queue stay bounded as configured. Requires Java 21 or newer.
+         */
+        @NotNull Builder virtualThreads(boolean virtualThreads);
+
+        @NotNull Builder rejectionPolicy(@NotNull RejectionPolicy rejectionPolicy);
+
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.concurrent;
+
+import de.natrox.common.validate.Check;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+@SuppressWarnings("ClassCanBeRecord")
+final class SynchronizerConfigImpl implements SynchronizerConfig {
+
+    final static SynchronizerConfig DEFAULT = SynchronizerConfig.builder().build();
+
+    private final int threads;
+    private final int queueCapacity;
+    private final boolean virtualThreads;
+    private final RejectionPolicy rejectionPolicy;
+
+    SynchronizerConfigImpl(int threads, int queueCapacity, boolean virtualThreads, RejectionPolicy rejectionPolicy) {
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.virtualThreads = virtualThreads;
+        this.rejectionPolicy = rejectionPolicy;
+    }
+
+    @Override
+    public int threads() {
+        return this.threads;
+    }
+
+    @Override
+    public int queueCapacity() {
+        return this.queueCapacity;
+    }
+
+    @Override
+    public boolean virtualThreads() {
+        return this.virtualThreads;
+    }
+
+    @Override
+    public @NotNull RejectionPolicy rejectionPolicy() {
+        return this.rejectionPolicy;
+    }
+
+    final static class BuilderImpl implements SynchronizerConfig.Builder {
+
+        private int threads;
+        private int queueCapacity;
+        private boolean virtualThreads;
+        private RejectionPolicy rejectionPolicy;
+
+        BuilderImpl() {
+            this.threads = Runtime.getRuntime().availableProcessors();
+            this.queueCapacity = 10000;
+            this.rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+        }
+
+        @Override
+        public @NotNull SynchronizerConfig.Builder threads(@Range(from = 1, to = Integer.MAX_VALUE) int threads) {
+            Check.argCondition(threads < 1, "threads");
+            this.threads = threads;
+            return this;
+        }
+
+        @Override
+        public @NotNull SynchronizerConfig.Builder queueCapacity(@Range(from = 0, to = Integer.MAX_VALUE) int queueCapacity) {
+            Check.argCondition(queueCapacity < 0, "queueCapacity");
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        @Override
+        public @NotNull SynchronizerConfig.Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        @Override
+        public @NotNull SynchronizerConfig.Builder rejectionPolicy(@NotNull RejectionPolicy rejectionPolicy) {
+            Check.notNull(rejectionPolicy, "rejectionPolicy");
+            this.rejectionPolicy = rejectionPolicy;
+            return this;
+        }
+
+        @Override
+        public SynchronizerConfig build() {
+            return new SynchronizerConfigImpl(this.threads, this.queueCapacity, this.virtualThreads, this.rejectionPolicy);
+        }
+    }
+}
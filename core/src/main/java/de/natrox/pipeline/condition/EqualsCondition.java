@@ -31,7 +31,7 @@ public final class EqualsCondition extends FieldCondition {
     @Override
     public boolean apply(Pair<UUID, DocumentData> element) {
         DocumentData documentData = element.second();
-        Object fieldValue = documentData.get(field());
+        Object fieldValue = documentData.get(fieldPath());
         return Objects.deepEquals(fieldValue, value());
     }
 }
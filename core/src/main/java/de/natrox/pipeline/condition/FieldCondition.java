@@ -16,14 +16,17 @@
 
 package de.natrox.pipeline.condition;
 
+import de.natrox.pipeline.document.FieldPath;
+
 public abstract class FieldCondition implements Condition {
 
     private final String field;
+    private final FieldPath fieldPath;
     private final Object value;
-    private boolean processed = false;
 
     protected FieldCondition(String field, Object value) {
         this.field = field;
+        this.fieldPath = FieldPath.of(field);
         this.value = value;
     }
 
@@ -31,18 +34,12 @@ public String field() {
         return this.field;
     }
 
-    public Object value() {
-        if (this.processed)
-            return value;
-
-        if (this.value == null)
-            return null;
-
-        this.processed = true;
-        return this.value;
+    public FieldPath fieldPath() {
+        return this.fieldPath;
     }
 
-    public boolean processed() {
-        return this.processed;
+    // Conditions are shared by the tasks of a parallel find, so they must not change while being applied
+    public Object value() {
+        return this.value;
     }
 }
@@ -23,7 +23,7 @@
 
 import java.util.UUID;
 
-final class LesserThanCondition extends ComparableCondition {
+public final class LesserThanCondition extends ComparableCondition {
 
     LesserThanCondition(String field, Comparable<?> value) {
         super(field, value);
@@ -34,7 +34,7 @@ final class LesserThanCondition extends ComparableCondition {
     public boolean apply(Pair<UUID, DocumentData> element) {
         Comparable comparable = comparable();
         DocumentData documentData = element.second();
-        Object fieldValue = documentData.get(field());
+        Object fieldValue = documentData.get(fieldPath());
         if (fieldValue != null) {
             if (fieldValue instanceof Number && comparable instanceof Number) {
                 return Numbers.compare((Number) fieldValue, (Number) comparable) < 0;
@@ -55,6 +55,10 @@ public sealed interface DocumentData extends Iterable<Pair<String, Object>> perm
 
     <T> @Nullable T get(@NotNull String key, @NotNull Class<T> type);
 
+    @Nullable Object get(@NotNull FieldPath field);
+
+    <T> @Nullable T get(@NotNull FieldPath field, @NotNull Class<T> type);
+
     @NotNull Set<String> fields();
 
     void remove(@NotNull String key);
@@ -28,12 +28,11 @@
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serial;
-import java.text.MessageFormat;
 import java.util.*;
 
 public final class DocumentDataImpl extends HashMap<String, Object> implements DocumentData {
 
-    private final static String FIELD_SEPARATOR = ".";
+    final static String FIELD_SEPARATOR = ".";
 
     DocumentDataImpl() {
         super();
@@ -48,9 +47,7 @@ public final class DocumentDataImpl extends HashMap<String, Object> implements D
         Check.argCondition(Strings.isNullOrEmpty(field), "field is empty or null key");
 
         if (this.isEmbedded(field)) {
-            String regex = MessageFormat.format("\\{0}", FIELD_SEPARATOR);
-            String[] splits = field.split(regex);
-            this.deepPut(splits, value);
+            this.deepPut(FieldPathImpl.of(field), 0, value);
         } else {
             super.put(field, value);
         }
@@ -61,7 +58,7 @@ public final class DocumentDataImpl extends HashMap<String, Object> implements D
     public @Nullable Object get(@NotNull String field) {
         Check.notNull(field, "field");
         if (this.isEmbedded(field) && !this.containsKey(field))
-            return this.deepGet(field);
+            return this.getByEmbeddedKey(FieldPathImpl.of(field));
         return super.get(field);
     }
 
@@ -71,6 +68,21 @@ public final class DocumentDataImpl extends HashMap<String, Object> implements D
         return type.cast(this.get(field));
     }
 
+    @Override
+    public @Nullable Object get(@NotNull FieldPath field) {
+        Check.notNull(field, "field");
+        String path = field.path();
+        if (field.isEmbedded() && !this.containsKey(path))
+            return this.getByEmbeddedKey((FieldPathImpl) field);
+        return super.get(path);
+    }
+
+    @Override
+    public <T> @Nullable T get(@NotNull FieldPath field, @NotNull Class<T> type) {
+        Check.notNull(type, "type");
+        return type.cast(this.get(field));
+    }
+
     @Override
     public @NotNull Set<String> fields() {
         return this.getFieldsInternal("");
@@ -80,26 +92,22 @@ public final class DocumentDataImpl extends HashMap<String, Object> implements D
     public void remove(@NotNull String field) {
         Check.notNull(field, "field");
         if (this.isEmbedded(field)) {
-            String regex = MessageFormat.format("\\{0}", FIELD_SEPARATOR);
-            String[] splits = field.split(regex);
-            this.deepRemove(splits);
+            this.deepRemove(FieldPathImpl.of(field), 0);
         } else {
             super.remove(field);
         }
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public @NotNull DocumentData clone() {
-        Map<String, Object> cloned = (Map<String, Object>) super.clone();
+        DocumentDataImpl cloned = new DocumentDataImpl(this);
 
         for (Map.Entry<String, Object> entry : cloned.entrySet()) {
             if (entry.getValue() instanceof DocumentData value) {
-                DocumentData clonedValue = value.clone();
-                cloned.put(entry.getKey(), clonedValue);
+                entry.setValue(value.clone());
             }
         }
-        return new DocumentDataImpl(cloned);
+        return cloned;
     }
 
     @Override
@@ -157,71 +165,59 @@ public boolean equals(Object other) {
     private Set<String> getFieldsInternal(String prefix) {
         Set<String> fields = new HashSet<>();
 
-        for (Pair<String, Object> entry : this) {
-            Object value = entry.second();
+        for (Map.Entry<String, Object> entry : super.entrySet()) {
+            Object value = entry.getValue();
             if (value instanceof DocumentDataImpl document) {
                 if (Strings.isNullOrEmpty(prefix)) {
-                    fields.addAll(document.getFieldsInternal(entry.first()));
+                    fields.addAll(document.getFieldsInternal(entry.getKey()));
                 } else {
                     fields.addAll(document.getFieldsInternal(prefix
-                        + FIELD_SEPARATOR + entry.first()));
+                        + FIELD_SEPARATOR + entry.getKey()));
                 }
             } else if (!(value instanceof Iterable)) {
                 if (Strings.isNullOrEmpty(prefix)) {
-                    fields.add(entry.first());
+                    fields.add(entry.getKey());
                 } else {
-                    fields.add(prefix + FIELD_SEPARATOR + entry.first());
+                    fields.add(prefix + FIELD_SEPARATOR + entry.getKey());
                 }
             }
         }
         return fields;
     }
 
-    private Object deepGet(String field) {
-        if (this.isEmbedded(field)) {
-            return this.getByEmbeddedKey(field);
-        } else {
-            return null;
-        }
-    }
-
-    private void deepPut(String[] splits, Object value) {
-        if (splits.length == 0) {
+    private void deepPut(FieldPathImpl path, int position, Object value) {
+        if (path.size() == position) {
             throw new RuntimeException("invalid key provided");
         }
-        String key = splits[0];
-        if (splits.length == 1) {
+        String key = path.segment(position);
+        if (path.size() == position + 1) {
             this.append(key, value);
         } else {
             Object val = get(key);
 
-            String[] remaining = Arrays.copyOfRange(splits, 1, splits.length);
-
             if (val instanceof DocumentDataImpl document) {
-                document.deepPut(remaining, value);
+                document.deepPut(path, position + 1, value);
             } else if (val == null) {
                 DocumentDataImpl subDoc = new DocumentDataImpl();
-                subDoc.deepPut(remaining, value);
+                subDoc.deepPut(path, position + 1, value);
 
                 this.append(key, subDoc);
             }
         }
     }
 
-    private void deepRemove(String[] splits) {
-        if (splits.length == 0) {
+    private void deepRemove(FieldPathImpl path, int position) {
+        if (path.size() == position) {
             throw new RuntimeException("invalid key provided");
         }
-        String key = splits[0];
-        if (splits.length == 1) {
+        String key = path.segment(position);
+        if (path.size() == position + 1) {
             this.remove(key);
         } else {
             Object val = this.get(key);
 
-            String[] remaining = Arrays.copyOfRange(splits, 1, splits.length);
-
             if (val instanceof DocumentDataImpl subDoc) {
-                subDoc.deepRemove(remaining);
+                subDoc.deepRemove(path, position + 1);
                 if (subDoc.size() == 0) {
                     super.remove(key);
                 }
@@ -231,38 +227,33 @@ private void deepRemove(String[] splits) {
         }
     }
 
-    private Object getByEmbeddedKey(String embeddedKey) {
-        String regex = MessageFormat.format("\\{0}", FIELD_SEPARATOR);
-
-        String[] path = embeddedKey.split(regex);
-        if (path.length < 1) {
+    private Object getByEmbeddedKey(FieldPathImpl path) {
+        if (path.size() < 1) {
             return null;
         }
 
-        return this.recursiveGet(get(path[0]), Arrays.copyOfRange(path, 1, path.length));
+        return this.recursiveGet(get(path.segment(0)), path, 1);
     }
 
     @SuppressWarnings("unchecked")
-    private Object recursiveGet(Object object, String[] remainingPath) {
+    private Object recursiveGet(Object object, FieldPathImpl path, int position) {
         if (object == null) {
             return null;
         }
 
-        if (remainingPath.length == 0) {
+        if (position == path.size()) {
             return object;
         }
 
         if (object instanceof DocumentData) {
-            return this.recursiveGet(((DocumentData) object).get(remainingPath[0]),
-                Arrays.copyOfRange(remainingPath, 1, remainingPath.length));
+            return this.recursiveGet(((DocumentData) object).get(path.segment(position)), path, position + 1);
         }
 
         if (object.getClass().isArray()) {
-            String accessor = remainingPath[0];
+            Integer index = path.index(position);
             Object[] array = ObjectUtil.convertToObjectArray(object);
 
-            if (this.isInteger(accessor)) {
-                int index = this.asInteger(accessor);
+            if (index != null) {
                 if (index < 0) {
                     throw new RuntimeException("invalid array index " + index + " to access item inside a document");
                 }
@@ -270,40 +261,39 @@ private Object recursiveGet(Object object, String[] remainingPath) {
                 if (index >= array.length)
                     throw new RuntimeException("index " + index +
                         " is not less than the size of the array " + array.length);
-                return this.recursiveGet(array[index], Arrays.copyOfRange(remainingPath, 1, remainingPath.length));
+                return this.recursiveGet(array[index], path, position + 1);
             } else {
-                return this.decompose(Arrays.asList(array), remainingPath);
+                return this.decompose(Arrays.asList(array), path, position);
             }
         }
 
         if (object instanceof Iterable) {
-            String accessor = remainingPath[0];
+            Integer index = path.index(position);
             Iterable<Object> iterable = (Iterable<Object>) object;
             List<Object> collection = Iterables.toList(iterable);
 
-            if (this.isInteger(accessor)) {
-                int index = this.asInteger(accessor);
+            if (index != null) {
                 if (index < 0)
                     throw new RuntimeException("invalid collection index " + index + " to access item inside a document");
 
                 if (index >= collection.size())
-                    throw new RuntimeException("index " + accessor +
+                    throw new RuntimeException("index " + path.segment(position) +
                         " is not less than the size of the list " + collection.size());
 
-                return this.recursiveGet(collection.get(index), Arrays.copyOfRange(remainingPath, 1, remainingPath.length));
+                return this.recursiveGet(collection.get(index), path, position + 1);
             } else {
-                return this.decompose(collection, remainingPath);
+                return this.decompose(collection, path, position);
             }
         }
         return null;
     }
 
     @SuppressWarnings("unchecked")
-    private List<Object> decompose(List<Object> collection, String[] remainingPath) {
+    private List<Object> decompose(List<Object> collection, FieldPathImpl path, int position) {
         Set<Object> items = new HashSet<>();
 
         for (Object item : collection) {
-            Object result = this.recursiveGet(item, remainingPath);
+            Object result = this.recursiveGet(item, path, position);
 
             if (result != null) {
                 if (result instanceof Iterable) {
@@ -320,23 +310,6 @@ private List<Object> decompose(List<Object> collection, String[] remainingPath)
         return new ArrayList<>(items);
     }
 
-    private int asInteger(String number) {
-        try {
-            return Integer.parseInt(number);
-        } catch (NumberFormatException e) {
-            return -1;
-        }
-    }
-
-    private boolean isInteger(String value) {
-        try {
-            Integer.parseInt(value);
-            return true;
-        } catch (NumberFormatException e) {
-            return false;
-        }
-    }
-
     private boolean isEmbedded(String field) {
         return field.contains(FIELD_SEPARATOR);
     }
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.document;
+
+import de.natrox.common.validate.Check;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A field of a {@link DocumentData}, with embedded fields separated by dots, that is split into its segments only
+ * once. Conditions and sorters hold on to their paths, so looking up nested fields does not allocate per document.
+ */
+@ApiStatus.Experimental
+public sealed interface FieldPath permits FieldPathImpl {
+
+    static @NotNull FieldPath of(@NotNull String path) {
+        Check.notNull(path, "path");
+        return FieldPathImpl.of(path);
+    }
+
+    @NotNull String path();
+
+    boolean isEmbedded();
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.document;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+final class FieldPathImpl implements FieldPath {
+
+    private final static Pattern SEPARATOR = Pattern.compile(Pattern.quote(DocumentDataImpl.FIELD_SEPARATOR));
+    // Field names are a small, fixed set in practice, the limit only guards against paths built from user input
+    private final static int MAX_CACHED_PATHS = 4096;
+    private final static Map<String, FieldPathImpl> CACHE = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final boolean embedded;
+    private final String[] segments;
+    private final Integer[] indexes;
+
+    private FieldPathImpl(String path) {
+        this.path = path;
+        this.embedded = path.contains(DocumentDataImpl.FIELD_SEPARATOR);
+        this.segments = this.embedded ? SEPARATOR.split(path) : new String[]{path};
+        this.indexes = new Integer[this.segments.length];
+
+        for (int i = 0; i < this.segments.length; i++) {
+            try {
+                this.indexes[i] = Integer.parseInt(this.segments[i]);
+            } catch (NumberFormatException ignored) {
+                // Not an array or collection index
+            }
+        }
+    }
+
+    static FieldPathImpl of(String path) {
+        FieldPathImpl fieldPath = CACHE.get(path);
+        if (fieldPath != null)
+            return fieldPath;
+
+        fieldPath = new FieldPathImpl(path);
+        if (CACHE.size() < MAX_CACHED_PATHS)
+            CACHE.putIfAbsent(path, fieldPath);
+        return fieldPath;
+    }
+
+    @Override
+    public @NotNull String path() {
+        return this.path;
+    }
+
+    @Override
+    public boolean isEmbedded() {
+        return this.embedded;
+    }
+
+    int size() {
+        return this.segments.length;
+    }
+
+    String segment(int position) {
+        return this.segments[position];
+    }
+
+    /**
+     * @return the segment at the given position as index, or {@code null} if it is not a number
+     */
+    Integer index(int position) {
+        return this.indexes[position];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof FieldPathImpl fieldPath))
+            return false;
+
+        return this.path.equals(fieldPath.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.path;
+    }
+}
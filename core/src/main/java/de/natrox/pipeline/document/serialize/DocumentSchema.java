@@ -0,0 +1,43 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.document.serialize;
+
+import de.natrox.common.validate.Check;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A fixed set of top-level fields that documents of one type are written with. Documents written through a schema do
+ * not carry their field names, only a short hash of each name, so every pipeline that reads them has to know the schema
+ * too (see {@link DocumentSerializer#registerSchema(DocumentSchema)}).
+ */
+@ApiStatus.Experimental
+public sealed interface DocumentSchema permits DocumentSchemaImpl {
+
+    static @NotNull DocumentSchema create(@NotNull String identifier, @NotNull List<String> fields) {
+        Check.notNull(identifier, "identifier");
+        Check.notNull(fields, "fields");
+        return new DocumentSchemaImpl(identifier, fields);
+    }
+
+    @NotNull String identifier();
+
+    @NotNull List<String> fields();
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.document.serialize;
+
+import de.natrox.pipeline.exception.PipelineException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class DocumentSchemaImpl implements DocumentSchema {
+
+    private final String identifier;
+    private final int id;
+    private final List<String> fields;
+    private final int[] fieldIds;
+    private final Map<Integer, Integer> fieldIndexes;
+
+    DocumentSchemaImpl(String identifier, List<String> fields) {
+        this.identifier = identifier;
+        this.id = identifier.hashCode();
+        this.fields = List.copyOf(fields);
+        this.fieldIds = new int[this.fields.size()];
+        this.fieldIndexes = new HashMap<>();
+
+        for (int i = 0; i < this.fields.size(); i++) {
+            String field = this.fields.get(i);
+            int fieldId = field.hashCode();
+            Integer previous = this.fieldIndexes.put(fieldId, i);
+            if (previous != null)
+                throw new PipelineException("Fields " + this.fields.get(previous) + " and " + field + " of schema " + identifier + " have the same hash");
+
+            this.fieldIds[i] = fieldId;
+        }
+    }
+
+    @Override
+    public @NotNull String identifier() {
+        return this.identifier;
+    }
+
+    @Override
+    public @NotNull List<String> fields() {
+        return this.fields;
+    }
+
+    int id() {
+        return this.id;
+    }
+
+    int fieldId(int index) {
+        return this.fieldIds[index];
+    }
+
+    int indexOf(int fieldId) {
+        Integer index = this.fieldIndexes.get(fieldId);
+        return index != null ? index : -1;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof DocumentSchemaImpl schema))
+            return false;
+
+        return this.identifier.equals(schema.identifier) && this.fields.equals(schema.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.identifier.hashCode() + this.fields.hashCode();
+    }
+}
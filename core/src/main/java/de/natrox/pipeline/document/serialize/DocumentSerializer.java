@@ -18,22 +18,79 @@
 
 import de.natrox.pipeline.document.DocumentData;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Set;
 
 public sealed interface DocumentSerializer permits DocumentSerializerImpl {
 
+    /**
+     * Creates a serializer that keeps a pool of Kryo instances, so documents can be written and read by several
+     * threads at the same time. This is the serializer every pipeline uses.
+     */
     static @NotNull DocumentSerializer create() {
-        return new DocumentSerializerImpl();
+        return DocumentSerializerImpl.pooled();
+    }
+
+    /**
+     * Creates a serializer that shares one Kryo instance and serializes all calls on its monitor.
+     */
+    static @NotNull DocumentSerializer createSynchronized() {
+        return DocumentSerializerImpl.synchronizedInstance();
     }
 
     void write(@NotNull OutputStream outputStream, @NotNull DocumentData data);
 
     byte @NotNull [] write(@NotNull DocumentData data);
 
+    /**
+     * Writes the document into the given buffer, starting at its current position, without an intermediate copy.
+     *
+     * @return the number of bytes written, the position of the buffer is advanced by the same amount
+     * @throws java.nio.BufferOverflowException if the remaining space of the buffer is too small, the position of
+     *                                          the buffer is left untouched in that case
+     */
+    int write(@NotNull DocumentData data, @NotNull ByteBuffer buffer);
+
     @NotNull DocumentData read(@NotNull InputStream inputStream);
 
     @NotNull DocumentData read(byte @NotNull [] bytes);
 
+    /**
+     * Reads a document, but only adds the given top-level fields to it. The values of the other fields are still
+     * decoded, since they are not length prefixed, but dropped right away instead of being kept in the document.
+     *
+     * @param fields the top-level fields to read, or {@code null} to read all fields
+     */
+    @NotNull DocumentData read(byte @NotNull [] bytes, @Nullable Set<String> fields);
+
+    /**
+     * Reads a document from the given buffer, starting at its current position. The position of the buffer is
+     * advanced past the document.
+     */
+    @NotNull DocumentData read(@NotNull ByteBuffer buffer);
+
+    /**
+     * Makes documents written with the given schema readable through the generic read methods. Registering a schema
+     * with an identifier that is already known replaces the previous one.
+     */
+    void registerSchema(@NotNull DocumentSchema schema);
+
+    /**
+     * Writes the values of the schema fields, in the order of {@link DocumentSchema#fields()}, without their field
+     * names. {@code null} values are left out.
+     */
+    byte @NotNull [] write(@NotNull DocumentSchema schema, @Nullable Object @NotNull [] values);
+
+    /**
+     * Reads the values written by {@link #write(DocumentSchema, Object[])}, in the order of
+     * {@link DocumentSchema#fields()}.
+     *
+     * @return the values, or {@code null} if the bytes hold a plain document instead
+     */
+    @Nullable Object @Nullable [] read(@NotNull DocumentSchema schema, byte @NotNull [] bytes);
+
 }
@@ -18,63 +18,299 @@
 
 import com.esotericsoftware.kryo.kryo5.Kryo;
 import com.esotericsoftware.kryo.kryo5.Serializer;
+import com.esotericsoftware.kryo.kryo5.io.ByteBufferInput;
+import com.esotericsoftware.kryo.kryo5.io.ByteBufferOutput;
 import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.KryoBufferOverflowException;
 import com.esotericsoftware.kryo.kryo5.io.Output;
 import com.esotericsoftware.kryo.kryo5.serializers.MapSerializer;
+import com.esotericsoftware.kryo.kryo5.util.ObjectMap;
+import com.esotericsoftware.kryo.kryo5.util.Pool;
+import de.natrox.common.validate.Check;
 import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.exception.PipelineException;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 final class DocumentSerializerImpl implements DocumentSerializer {
 
-    private final Kryo kryo = new Kryo();
+    private final static int MAX_POOLED_INSTANCES = Runtime.getRuntime().availableProcessors() * 2;
+    // A Kryo map always starts with its size + 1, so this first byte can never belong to a map payload
+    private final static byte SCHEMA_MARKER = 0x00;
+    private final static byte SCHEMA_FORMAT = 0x01;
+    // Graph context key of the fields a top-level document read is limited to
+    private final static String PROJECTION = "pipeline.projection";
 
-    DocumentSerializerImpl() {
-        this.kryo.setRegistrationRequired(false);
-        this.kryo.register(DocumentData.class, new DocumentSerializer());
-        this.kryo.register(UUID.class, new UUIDSerializer());
+    private final Pool<KryoContext> contextPool;
+    private final KryoContext context;
+    private final Map<Integer, DocumentSchemaImpl> schemas = new ConcurrentHashMap<>();
+
+    private DocumentSerializerImpl(boolean pooled) {
+        if (pooled) {
+            this.contextPool = new Pool<>(true, false, MAX_POOLED_INSTANCES) {
+                @Override
+                protected KryoContext create() {
+                    return new KryoContext();
+                }
+            };
+            this.context = null;
+        } else {
+            this.contextPool = null;
+            this.context = new KryoContext();
+        }
+    }
+
+    static @NotNull DocumentSerializerImpl pooled() {
+        return new DocumentSerializerImpl(true);
+    }
+
+    static @NotNull DocumentSerializerImpl synchronizedInstance() {
+        return new DocumentSerializerImpl(false);
+    }
+
+    private static Kryo createKryo() {
+        Kryo kryo = new Kryo();
+        kryo.setRegistrationRequired(false);
+        kryo.register(DocumentData.class, new DocumentSerializer());
+        kryo.register(UUID.class, new UUIDSerializer());
+        return kryo;
     }
 
     @Override
     public void write(@NotNull OutputStream outputStream, @NotNull DocumentData data) {
         try (Output output = new Output(outputStream)) {
-            synchronized (this.kryo) {
-                this.kryo.writeObject(output, data);
-            }
+            this.withContext(context -> {
+                context.kryo.writeObject(output, data);
+                return null;
+            });
         }
     }
 
     @Override
     public byte @NotNull [] write(@NotNull DocumentData data) {
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream()) {
-            this.write(byteArrayOutputStream, data);
-            return byteArrayOutputStream.toByteArray();
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to close output stream", e);
+        return this.withContext(context -> {
+            Output output = context.output();
+            context.kryo.writeObject(output, data);
+            return output.toBytes();
+        });
+    }
+
+    @Override
+    public int write(@NotNull DocumentData data, @NotNull ByteBuffer buffer) {
+        int startPosition = buffer.position();
+        ByteOrder order = buffer.order();
+        try {
+            return this.withContext(context -> {
+                ByteBufferOutput output = new ByteBufferOutput(buffer);
+                context.kryo.writeObject(output, data);
+                return output.position() - startPosition;
+            });
+        } catch (KryoBufferOverflowException e) {
+            buffer.position(startPosition);
+            BufferOverflowException exception = new BufferOverflowException();
+            exception.initCause(e);
+            throw exception;
+        } finally {
+            buffer.order(order);
         }
     }
 
     @Override
     public @NotNull DocumentData read(@NotNull InputStream inputStream) {
         try (Input input = new Input(inputStream)) {
-            synchronized (this.kryo) {
-                return this.kryo.readObject(input, DocumentData.class);
-            }
+            return this.withContext(context -> this.readDocument(context.kryo, input, null));
         }
     }
 
     @Override
     public @NotNull DocumentData read(byte @NotNull [] bytes) {
-        try (Input input = new Input(bytes, 0, bytes.length)) {
-            synchronized (this.kryo) {
-                return this.kryo.readObject(input, DocumentData.class);
+        return this.withContext(context -> this.readDocument(context.kryo, context.input(bytes), null));
+    }
+
+    @Override
+    public @NotNull DocumentData read(byte @NotNull [] bytes, @Nullable Set<String> fields) {
+        return this.withContext(context -> this.readDocument(context.kryo, context.input(bytes), fields));
+    }
+
+    @Override
+    public @NotNull DocumentData read(@NotNull ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        try {
+            return this.withContext(context -> this.readDocument(context.kryo, new ByteBufferInput(buffer), null));
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    @Override
+    public void registerSchema(@NotNull DocumentSchema schema) {
+        Check.notNull(schema, "schema");
+        DocumentSchemaImpl schemaImpl = (DocumentSchemaImpl) schema;
+        this.schemas.merge(schemaImpl.id(), schemaImpl, (registered, added) -> {
+            if (!registered.identifier().equals(added.identifier()))
+                throw new PipelineException("Schemas " + registered.identifier() + " and " + added.identifier() + " have the same hash");
+            return added;
+        });
+    }
+
+    @Override
+    public byte @NotNull [] write(@NotNull DocumentSchema schema, @Nullable Object @NotNull [] values) {
+        Check.notNull(schema, "schema");
+        Check.notNull(values, "values");
+        DocumentSchemaImpl schemaImpl = (DocumentSchemaImpl) schema;
+        Check.argCondition(values.length != schemaImpl.fields().size(), "values");
+
+        return this.withContext(context -> {
+            Output output = context.output();
+            output.writeByte(SCHEMA_MARKER);
+            output.writeByte(SCHEMA_FORMAT);
+            output.writeInt(schemaImpl.id());
+
+            int count = 0;
+            for (Object value : values) {
+                if (value != null)
+                    count++;
+            }
+            output.writeVarInt(count, true);
+
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null)
+                    continue;
+                output.writeInt(schemaImpl.fieldId(i));
+                context.kryo.writeClassAndObject(output, values[i]);
+            }
+            return output.toBytes();
+        });
+    }
+
+    @Override
+    public @Nullable Object @Nullable [] read(@NotNull DocumentSchema schema, byte @NotNull [] bytes) {
+        Check.notNull(schema, "schema");
+        Check.notNull(bytes, "bytes");
+        if (bytes.length == 0 || bytes[0] != SCHEMA_MARKER)
+            return null;
+
+        DocumentSchemaImpl schemaImpl = (DocumentSchemaImpl) schema;
+        return this.withContext(context -> {
+            Input input = context.input(bytes);
+            input.readByte();
+            return this.readValues(context.kryo, input, this.readSchema(input, schemaImpl));
+        });
+    }
+
+    private DocumentData readDocument(Kryo kryo, Input input, @Nullable Set<String> fields) {
+        if (input.readByte() != SCHEMA_MARKER) {
+            input.setPosition(input.position() - 1);
+            // The graph context is cleared once the top-level read is done
+            if (fields != null) {
+                @SuppressWarnings("unchecked")
+                ObjectMap<Object, Object> graphContext = kryo.getGraphContext();
+                graphContext.put(PROJECTION, fields);
             }
+            return kryo.readObject(input, DocumentData.class);
+        }
+
+        DocumentSchemaImpl schema = this.readSchema(input, null);
+        Object[] values = this.readValues(kryo, input, schema);
+        DocumentData document = DocumentData.create();
+        for (int i = 0; i < schema.fields().size(); i++) {
+            String field = schema.fields().get(i);
+            if (values[i] != null && (fields == null || fields.contains(field)))
+                document.append(field, values[i]);
+        }
+        return document;
+    }
+
+    private DocumentSchemaImpl readSchema(Input input, @Nullable DocumentSchemaImpl expected) {
+        byte format = input.readByte();
+        if (format != SCHEMA_FORMAT)
+            throw new PipelineException("Unsupported schema format " + format);
+
+        int schemaId = input.readInt();
+        DocumentSchemaImpl schema = expected != null ? expected : this.schemas.get(schemaId);
+        if (schema == null)
+            throw new PipelineException("No schema registered for id " + schemaId);
+        if (schema.id() != schemaId)
+            throw new PipelineException("Document was not written with schema " + schema.identifier());
+        return schema;
+    }
+
+    // Values of fields the schema does not know (anymore) are read and dropped, missing fields stay null
+    private Object[] readValues(Kryo kryo, Input input, DocumentSchemaImpl schema) {
+        Object[] values = new Object[schema.fields().size()];
+        int count = input.readVarInt(true);
+        for (int i = 0; i < count; i++) {
+            int index = schema.indexOf(input.readInt());
+            Object value = kryo.readClassAndObject(input);
+            if (index >= 0)
+                values[index] = value;
+        }
+        return values;
+    }
+
+    private <T> T withContext(Function<KryoContext, T> function) {
+        if (this.contextPool == null) {
+            synchronized (this.context) {
+                try {
+                    return function.apply(this.context);
+                } finally {
+                    this.context.release();
+                }
+            }
+        }
+
+        KryoContext context = this.contextPool.obtain();
+        try {
+            return function.apply(context);
+        } finally {
+            context.release();
+            this.contextPool.free(context);
+        }
+    }
+
+    /**
+     * A Kryo instance together with the buffers it reuses between calls. The output buffer grows with the documents
+     * written through it, but is dropped again once it exceeds {@link #MAX_RETAINED_BUFFER_SIZE}, so a single huge
+     * document does not stay pinned in every pooled context.
+     */
+    private final static class KryoContext {
+
+        private final static int INITIAL_BUFFER_SIZE = 1024;
+        private final static int MAX_RETAINED_BUFFER_SIZE = 1024 * 1024;
+        private final static byte[] EMPTY_BUFFER = new byte[0];
+
+        private final Kryo kryo = DocumentSerializerImpl.createKryo();
+        private final Input input = new Input();
+        private Output output = new Output(INITIAL_BUFFER_SIZE, -1);
+
+        Output output() {
+            return this.output;
+        }
+
+        Input input(byte[] bytes) {
+            this.input.setBuffer(bytes);
+            return this.input;
+        }
+
+        void release() {
+            if (this.output.getBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+                this.output = new Output(INITIAL_BUFFER_SIZE, -1);
+            } else {
+                this.output.reset();
+            }
+            this.input.setBuffer(EMPTY_BUFFER);
         }
     }
 
@@ -94,25 +330,58 @@ public void write(Kryo kryo, Output output, DocumentData document) {
 
         @Override
         public DocumentData read(Kryo kryo, Input input, Class<? extends DocumentData> type) {
+            // Only the top-level document is projected, embedded documents are read in full
+            Set<String> fields = (Set<String>) kryo.getGraphContext().remove(PROJECTION);
             DocumentData document = DocumentData.create();
-            Map<?, ?> map = this.mapSerializer.read(kryo, input, Map.class);
+            Map<?, ?> map = fields == null
+                ? this.mapSerializer.read(kryo, input, Map.class)
+                : this.projectingSerializer(fields).read(kryo, input, Map.class);
             for (Map.Entry<?, ?> entry : map.entrySet()) {
                 document.append((String) entry.getKey(), entry.getValue());
             }
 
             return document;
         }
+
+        private MapSerializer projectingSerializer(Set<String> fields) {
+            return new MapSerializer() {
+                @Override
+                protected Map create(Kryo kryo, Input input, Class type, int size) {
+                    return new HashMap<>(size) {
+                        @Override
+                        public Object put(Object key, Object value) {
+                            return fields.contains(key) ? super.put(key, value) : null;
+                        }
+                    };
+                }
+            };
+        }
     }
 
-    private final static class UUIDSerializer extends Serializer<UUID> {
+    /**
+     * Writes a UUID as a format byte followed by its two raw longs. UUIDs written by older versions were stored as
+     * their string representation, which Kryo always starts with a byte that has the high bit set, so those payloads
+     * are still recognized and read as before.
+     */
+    final static class UUIDSerializer extends Serializer<UUID> {
+
+        final static byte BINARY_FORMAT = 0x01;
 
         @Override
         public void write(Kryo kryo, Output output, UUID object) {
-            output.writeString(object.toString());
+            output.writeByte(BINARY_FORMAT);
+            output.writeLong(object.getMostSignificantBits());
+            output.writeLong(object.getLeastSignificantBits());
         }
 
         @Override
         public UUID read(Kryo kryo, Input input, Class<? extends UUID> type) {
+            byte format = input.readByte();
+            if (format == BINARY_FORMAT)
+                return new UUID(input.readLong(), input.readLong());
+
+            // Legacy string format, the byte we just read belongs to the string header
+            input.setPosition(input.position() - 1);
             return UUID.fromString(input.readString());
         }
     }
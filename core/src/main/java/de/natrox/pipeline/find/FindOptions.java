@@ -24,6 +24,8 @@
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
+import java.util.Set;
+
 @ApiStatus.Experimental
 public sealed interface FindOptions permits FindOptionsImpl {
 
@@ -43,6 +45,10 @@ public sealed interface FindOptions permits FindOptionsImpl {
 
     @Nullable SortEntry sortBy();
 
+    boolean parallel();
+
+    @Nullable Set<String> projection();
+
     @ApiStatus.Experimental
     sealed interface Builder extends IBuilder<FindOptions> permits FindOptionsImpl.BuilderImpl {
 
@@ -54,6 +60,26 @@ sealed interface Builder extends IBuilder<FindOptions> permits FindOptionsImpl.B
 
         @NotNull Builder sort(@NotNull SortEntry sortableFields);
 
+        /**
+         * Deserializes and filters the scanned documents in batches on a dedicated {@link java.util.concurrent.ForkJoinPool}
+         * instead of on the calling thread. The pool is shared by all finds and separate from the common pool, it has one
+         * daemon thread per available processor, named {@code pipeline-find-N}.
+         * <p>
+         * Batches are merged in scan order, so an unsorted result has the same order as a sequential find. A sorted
+         * result is ordered by the sort fields, documents with equal sort fields keep their scan order as well.
+         *
+         * @param parallel whether the find should run in parallel
+         */
+        @NotNull Builder parallel(boolean parallel);
+
+        /**
+         * Limits the found documents to the given fields, all other fields are left out when the documents are
+         * deserialized. An embedded field keeps its whole top-level field.
+         *
+         * @param fields the fields to keep
+         */
+        @NotNull Builder project(@NotNull String... fields);
+
     }
 
 }
@@ -23,6 +23,10 @@
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Range;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 @SuppressWarnings("ClassCanBeRecord")
 final class FindOptionsImpl implements FindOptions {
 
@@ -32,12 +36,16 @@ final class FindOptionsImpl implements FindOptions {
     private final int limit;
     private final Condition condition;
     private final SortEntry sortBy;
+    private final boolean parallel;
+    private final Set<String> projection;
 
-    FindOptionsImpl(int skip, int limit, Condition condition, SortEntry sortBy) {
+    FindOptionsImpl(int skip, int limit, Condition condition, SortEntry sortBy, boolean parallel, Set<String> projection) {
         this.skip = skip;
         this.limit = limit;
         this.condition = condition;
         this.sortBy = sortBy;
+        this.parallel = parallel;
+        this.projection = projection;
     }
 
     public int skip() {
@@ -56,12 +64,22 @@ public int limit() {
         return this.sortBy;
     }
 
+    public boolean parallel() {
+        return this.parallel;
+    }
+
+    public @Nullable Set<String> projection() {
+        return this.projection;
+    }
+
     final static class BuilderImpl implements FindOptions.Builder {
 
         private SortEntry sortBy;
         private Condition condition;
         private int skip;
         private int limit;
+        private boolean parallel;
+        private Set<String> projection;
 
         BuilderImpl() {
             this.skip = -1;
@@ -96,9 +114,28 @@ final static class BuilderImpl implements FindOptions.Builder {
             return this;
         }
 
+        @Override
+        public FindOptions.@NotNull Builder parallel(boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        @Override
+        public FindOptions.@NotNull Builder project(@NotNull String... fields) {
+            Check.notNull(fields, "fields");
+            Set<String> projection = new HashSet<>();
+            for (String field : fields) {
+                Check.notNull(field, "field");
+                int separator = field.indexOf('.');
+                projection.add(separator == -1 ? field : field.substring(0, separator));
+            }
+            this.projection = Collections.unmodifiableSet(projection);
+            return this;
+        }
+
         @Override
         public FindOptions build() {
-            return new FindOptionsImpl(this.skip, this.limit, this.condition, this.sortBy);
+            return new FindOptionsImpl(this.skip, this.limit, this.condition, this.sortBy, this.parallel, this.projection);
         }
     }
 }
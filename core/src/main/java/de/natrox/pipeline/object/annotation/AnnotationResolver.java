@@ -21,6 +21,8 @@
 import org.jetbrains.annotations.NotNull;
 
 import java.lang.reflect.Field;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 @ApiStatus.Internal
 public final class AnnotationResolver {
@@ -47,4 +49,19 @@ private AnnotationResolver() {
         Named named = field.getAnnotation(Named.class);
         return named != null ? named.name() : field.getName();
     }
+
+    /**
+     * Returns the names of the fields of the type and its superclasses that are annotated with {@link Indexed}.
+     */
+    public static @NotNull Set<String> indexes(@NotNull Class<?> type) {
+        Check.notNull(type, "type");
+        Set<String> indexes = new LinkedHashSet<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Indexed.class))
+                    indexes.add(AnnotationResolver.fieldName(field));
+            }
+        }
+        return indexes;
+    }
 }
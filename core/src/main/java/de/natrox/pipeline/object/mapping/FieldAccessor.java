@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.object.mapping;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reads and writes one persistent field. Only public because the accessors generated by {@link FieldAccessors} live
+ * in the package of the mapped type.
+ */
+@ApiStatus.Internal
+public abstract class FieldAccessor {
+
+    protected FieldAccessor() {
+
+    }
+
+    public abstract @Nullable Object get(@NotNull Object instance);
+
+    public abstract void set(@NotNull Object instance, @Nullable Object value);
+
+}
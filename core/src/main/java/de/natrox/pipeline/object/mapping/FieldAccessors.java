@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.object.mapping;
+
+import com.esotericsoftware.kryo.kryo5.asm.ClassWriter;
+import com.esotericsoftware.kryo.kryo5.asm.MethodVisitor;
+import com.esotericsoftware.kryo.kryo5.asm.Type;
+import de.natrox.pipeline.exception.PipelineException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import static com.esotericsoftware.kryo.kryo5.asm.Opcodes.*;
+
+/**
+ * Creates {@link FieldAccessor}s. Where possible the accessor is a hidden class generated as nestmate of the class
+ * declaring the field, which reads and writes the field directly and boxes primitives itself. Fields that cannot be
+ * accessed that way, like final fields or fields of classes in modules that are not open to the pipeline, fall back to
+ * an accessor backed by method handles.
+ */
+final class FieldAccessors {
+
+    private final static String ACCESSOR_NAME = Type.getInternalName(FieldAccessor.class);
+    private final static String OBJECT_DESCRIPTOR = Type.getDescriptor(Object.class);
+    private final static MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private final static MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private FieldAccessors() {
+        throw new UnsupportedOperationException();
+    }
+
+    static FieldAccessor create(Field field, boolean generate) {
+        if (generate && !Modifier.isFinal(field.getModifiers())) {
+            try {
+                return generated(field);
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException ignored) {
+                // Fall back to method handles below
+            }
+        }
+        return methodHandles(field);
+    }
+
+    private static FieldAccessor generated(Field field) throws ReflectiveOperationException {
+        Class<?> owner = field.getDeclaringClass();
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+        if (!field.getType().isPrimitive())
+            lookup.accessClass(field.getType());
+
+        byte[] bytes = generateClass(owner, field);
+        Class<?> accessorClass = lookup
+            .defineHiddenClass(bytes, true, MethodHandles.Lookup.ClassOption.NESTMATE)
+            .lookupClass();
+
+        return (FieldAccessor) accessorClass.getConstructor().newInstance();
+    }
+
+    private static byte[] generateClass(Class<?> owner, Field field) {
+        String ownerName = Type.getInternalName(owner);
+        String name = ownerName + "$" + field.getName() + "$Accessor";
+        Class<?> fieldType = field.getType();
+        String fieldDescriptor = Type.getDescriptor(fieldType);
+        Type type = Type.getType(fieldType);
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SYNTHETIC, name, null, ACCESSOR_NAME, null);
+
+        MethodVisitor constructor = writer.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(ALOAD, 0);
+        constructor.visitMethodInsn(INVOKESPECIAL, ACCESSOR_NAME, "<init>", "()V", false);
+        constructor.visitInsn(RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor get = writer.visitMethod(ACC_PUBLIC, "get", "(" + OBJECT_DESCRIPTOR + ")" + OBJECT_DESCRIPTOR, null, null);
+        get.visitCode();
+        get.visitVarInsn(ALOAD, 1);
+        get.visitTypeInsn(CHECKCAST, ownerName);
+        get.visitFieldInsn(GETFIELD, ownerName, field.getName(), fieldDescriptor);
+        if (fieldType.isPrimitive()) {
+            String boxName = boxName(fieldType);
+            get.visitMethodInsn(INVOKESTATIC, boxName, "valueOf", "(" + fieldDescriptor + ")L" + boxName + ";", false);
+        }
+        get.visitInsn(ARETURN);
+        get.visitMaxs(0, 0);
+        get.visitEnd();
+
+        MethodVisitor set = writer.visitMethod(ACC_PUBLIC, "set", "(" + OBJECT_DESCRIPTOR + OBJECT_DESCRIPTOR + ")V", null, null);
+        set.visitCode();
+        set.visitVarInsn(ALOAD, 1);
+        set.visitTypeInsn(CHECKCAST, ownerName);
+        set.visitVarInsn(ALOAD, 2);
+        if (fieldType.isPrimitive()) {
+            String boxName = boxName(fieldType);
+            set.visitTypeInsn(CHECKCAST, boxName);
+            set.visitMethodInsn(INVOKEVIRTUAL, boxName, type.getClassName() + "Value", "()" + fieldDescriptor, false);
+        } else if (fieldType != Object.class) {
+            set.visitTypeInsn(CHECKCAST, type.getInternalName());
+        }
+        set.visitFieldInsn(PUTFIELD, ownerName, field.getName(), fieldDescriptor);
+        set.visitInsn(RETURN);
+        set.visitMaxs(0, 0);
+        set.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static String boxName(Class<?> primitiveType) {
+        return Type.getInternalName(MethodType.methodType(primitiveType).wrap().returnType());
+    }
+
+    private static FieldAccessor methodHandles(Field field) {
+        try {
+            field.setAccessible(true);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return new MethodHandleAccessor(
+                lookup.unreflectGetter(field).asType(GETTER_TYPE),
+                lookup.unreflectSetter(field).asType(SETTER_TYPE)
+            );
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new PipelineException("Could not access field " + field.getName() + " of " + field.getDeclaringClass().getName(), e);
+        }
+    }
+
+    private final static class MethodHandleAccessor extends FieldAccessor {
+
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        MethodHandleAccessor(MethodHandle getter, MethodHandle setter) {
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Object get(Object instance) {
+            try {
+                return (Object) this.getter.invokeExact(instance);
+            } catch (Throwable throwable) {
+                throw new PipelineException(throwable);
+            }
+        }
+
+        @Override
+        public void set(Object instance, Object value) {
+            try {
+                this.setter.invokeExact(instance, value);
+            } catch (Throwable throwable) {
+                throw new PipelineException(throwable);
+            }
+        }
+    }
+}
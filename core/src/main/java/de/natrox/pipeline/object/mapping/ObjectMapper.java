@@ -17,11 +17,17 @@
 package de.natrox.pipeline.object.mapping;
 
 import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.document.serialize.DocumentSchema;
 import de.natrox.pipeline.object.ObjectData;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public sealed interface ObjectMapper<T extends ObjectData> permits ObjectMapperImpl {
 
+    /**
+     * Creates a mapper for the persistent fields of the given type. The fields are read and written through accessor
+     * classes generated for the type where the JVM allows it, and through method handles otherwise.
+     */
     static <T extends ObjectData> @NotNull ObjectMapper<T> create(@NotNull Class<? super T> type) {
         return new ObjectMapperImpl<T>(type);
     }
@@ -30,4 +36,14 @@
 
     @NotNull DocumentData save(@NotNull T objectData);
 
+    /**
+     * The schema of the persistent fields of the mapped type, the order of its fields is the order of the values
+     * used by {@link #values(ObjectData)} and {@link #load(ObjectData, Object[])}.
+     */
+    @NotNull DocumentSchema schema();
+
+    @Nullable Object @NotNull [] values(@NotNull T objectData);
+
+    void load(@NotNull T objectData, @Nullable Object @NotNull [] values);
+
 }
@@ -17,83 +17,129 @@
 package de.natrox.pipeline.object.mapping;
 
 import de.natrox.pipeline.document.DocumentData;
-import de.natrox.pipeline.exception.PipelineException;
-import de.natrox.pipeline.object.InstanceCreator;
+import de.natrox.pipeline.document.serialize.DocumentSchema;
 import de.natrox.pipeline.object.ObjectData;
 import de.natrox.pipeline.object.annotation.AnnotationResolver;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Comparator;
+import java.util.List;
 
-@SuppressWarnings("ClassCanBeRecord")
 final class ObjectMapperImpl<T extends ObjectData> implements ObjectMapper<T> {
 
     private final Class<? super T> type;
+    // Sorted by name, which is also the order of the schema fields
+    private final PersistentField[] fields;
+    private volatile DocumentSchema schema;
 
     ObjectMapperImpl(Class<? super T> type) {
+        this(type, true);
+    }
+
+    ObjectMapperImpl(Class<? super T> type, boolean generateAccessors) {
         this.type = type;
+        this.fields = persistentFields(type, generateAccessors);
     }
 
     @Override
     public void load(@NotNull T objectData, @NotNull DocumentData documentData) {
-        for (Field field : this.persistentFields()) {
-            try {
-                String key = AnnotationResolver.fieldName(field);
-                Object value = documentData.get(key, field.getType());
+        for (PersistentField field : this.fields) {
+            Object value = documentData.get(field.name, field.valueType);
 
-                if (value == null)
-                    continue;
+            if (value == null)
+                continue;
 
-                field.setAccessible(true);
-                field.set(objectData, value);
-            } catch (IllegalAccessException e) {
-                throw new PipelineException(e);
-            }
+            field.set(objectData, value);
         }
     }
 
     @Override
     public @NotNull DocumentData save(@NotNull T objectData) {
         DocumentData documentData = DocumentData.create();
-        for (Field field : this.persistentFields()) {
-            this.saveSingle(field, objectData, documentData);
+        for (PersistentField field : this.fields) {
+            Object value = field.get(objectData);
+
+            if (value == null)
+                continue;
+
+            documentData.append(field.name, value);
         }
         return documentData;
     }
 
-    private void saveSingle(Field field, T objectData, DocumentData documentData) {
-        try {
-            String key = AnnotationResolver.fieldName(field);
-            field.setAccessible(true);
-            Object value = field.get(objectData);
+    @Override
+    public @NotNull DocumentSchema schema() {
+        DocumentSchema schema = this.schema;
+        if (schema == null) {
+            List<String> fields = Arrays.stream(this.fields).map(field -> field.name).toList();
+            schema = this.schema = DocumentSchema.create(AnnotationResolver.identifier(this.type), fields);
+        }
+        return schema;
+    }
 
-            if (value == null)
-                return;
+    @Override
+    public @Nullable Object @NotNull [] values(@NotNull T objectData) {
+        Object[] values = new Object[this.fields.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = this.fields[i].get(objectData);
+        }
+        return values;
+    }
+
+    @Override
+    public void load(@NotNull T objectData, @Nullable Object @NotNull [] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null)
+                continue;
 
-            documentData.append(key, value);
-        } catch (IllegalAccessException e) {
-            throw new PipelineException(e);
+            this.fields[i].set(objectData, values[i]);
         }
     }
 
-    private Set<Field> persistentFields() {
-        Set<Field> fields = new HashSet<>();
-        Class<?> type = this.type;
+    private static PersistentField[] persistentFields(Class<?> type, boolean generateAccessors) {
+        List<PersistentField> fields = new ArrayList<>();
 
         while (type != null) {
-            fields.addAll(Arrays.asList(type.getDeclaredFields()));
+            for (Field field : type.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isTransient(modifiers) || Modifier.isStatic(modifiers))
+                    continue;
+
+                fields.add(new PersistentField(field, generateAccessors));
+            }
             type = type.getSuperclass();
         }
 
         return fields
             .stream()
-            .filter(field -> !Modifier.isTransient(field.getModifiers()))
-            .collect(Collectors.toSet());
+            .sorted(Comparator.comparing(field -> field.name))
+            .toArray(PersistentField[]::new);
+    }
+
+    private final static class PersistentField {
+
+        private final String name;
+        private final Class<?> valueType;
+        private final FieldAccessor accessor;
+
+        PersistentField(Field field, boolean generateAccessor) {
+            this.name = AnnotationResolver.fieldName(field);
+            this.valueType = MethodType.methodType(field.getType()).wrap().returnType();
+            this.accessor = FieldAccessors.create(field, generateAccessor);
+        }
+
+        Object get(Object instance) {
+            return this.accessor.get(instance);
+        }
+
+        void set(Object instance, Object value) {
+            this.accessor.set(instance, value);
+        }
     }
 }
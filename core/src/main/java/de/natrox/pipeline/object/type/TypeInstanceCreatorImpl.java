@@ -20,29 +20,41 @@
 import de.natrox.pipeline.repository.Pipeline;
 import org.jetbrains.annotations.NotNull;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 
-@SuppressWarnings("ClassCanBeRecord")
 final class TypeInstanceCreatorImpl<T extends ObjectData> implements TypeInstanceCreator<T> {
 
+    private final static MethodType CONSTRUCTOR_TYPE = MethodType.methodType(ObjectData.class, Pipeline.class);
+
     private final Class<? extends T> type;
+    // Resolved on first use, so a type without a matching constructor only fails once it is actually instantiated
+    private volatile MethodHandle constructor;
 
     TypeInstanceCreatorImpl(Class<? extends T> type) {
         this.type = type;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     public @NotNull T create(@NotNull Pipeline pipeline) {
         try {
-            Constructor<? extends T> constructor = this.type.getConstructor(Pipeline.class);
-            constructor.setAccessible(true);
+            return (T) (ObjectData) this.constructor().invokeExact(pipeline);
+        } catch (Throwable throwable) {
+            throw new RuntimeException("Error while instantiating instance of class " + this.type.getSimpleName(), throwable);
+        }
+    }
 
-            return constructor.newInstance(pipeline);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
-                 NoSuchMethodException e) {
-            throw new RuntimeException("Error while instantiating instance of class " + this.type.getSimpleName(), e);
+    private MethodHandle constructor() throws ReflectiveOperationException {
+        MethodHandle constructor = this.constructor;
+        if (constructor == null) {
+            Constructor<? extends T> reflected = this.type.getConstructor(Pipeline.class);
+            reflected.setAccessible(true);
+            constructor = this.constructor = MethodHandles.lookup().unreflectConstructor(reflected).asType(CONSTRUCTOR_TYPE);
         }
+        return constructor;
     }
 
 }
@@ -26,11 +26,20 @@ public sealed interface CacheConfig extends StoreMapConfig permits GlobalCacheCo
 
     long expireAfterAccessNanos();
 
+    long refreshAfterWriteNanos();
+
     interface Builder<T extends CacheConfig, R extends StoreMapConfig.Builder<T, R>> extends StoreMapConfig.Builder<T, R> {
 
         @NotNull R expireAfterWrite(long time, @NotNull TimeUnit unit);
 
         @NotNull R expireAfterAccess(long time, @NotNull TimeUnit unit);
 
+        /**
+         * Reloads a document from the next part down in the background once it is read and was written to this cache
+         * longer than the given time ago. The cached document is still returned until the reload completes, so
+         * documents that are read regularly are refreshed before they expire instead of being loaded by the next reader.
+         */
+        @NotNull R refreshAfterWrite(long time, @NotNull TimeUnit unit);
+
     }
 }
@@ -17,6 +17,7 @@
 package de.natrox.pipeline.part.config;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
 
 public sealed interface LocalCacheConfig extends CacheConfig permits StoreMapConfigImpl.LocalCacheConfigImpl {
 
@@ -28,7 +29,23 @@ public sealed interface LocalCacheConfig extends CacheConfig permits StoreMapCon
         return StoreMapConfigImpl.LocalCacheConfigImpl.DEFAULT;
     }
 
+    long maximumSize();
+
+    long maximumWeight();
+
     interface Builder extends CacheConfig.Builder<LocalCacheConfig, Builder> {
 
+        /**
+         * Bounds the number of documents in the local cache, the least valuable documents are evicted once it is
+         * exceeded. Cannot be combined with {@link #maximumWeight(long)}.
+         */
+        @NotNull LocalCacheConfig.Builder maximumSize(@Range(from = 0, to = Long.MAX_VALUE) long maximumSize);
+
+        /**
+         * Bounds the summed up size of the serialized documents in the local cache in bytes, the least valuable
+         * documents are evicted once it is exceeded. Cannot be combined with {@link #maximumSize(long)}.
+         */
+        @NotNull LocalCacheConfig.Builder maximumWeight(@Range(from = 0, to = Long.MAX_VALUE) long maximumBytes);
+
     }
 }
@@ -17,6 +17,9 @@
 package de.natrox.pipeline.part.config;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
+
+import java.util.concurrent.TimeUnit;
 
 public sealed interface StorageConfig extends StoreMapConfig permits StoreMapConfigImpl.StorageConfigImpl {
 
@@ -28,7 +31,34 @@ public sealed interface StorageConfig extends StoreMapConfig permits StoreMapCon
         return StoreMapConfigImpl.StorageConfigImpl.DEFAULT;
     }
 
+    /**
+     * @return the interval in which queued storage writes are flushed, or {@code -1} if documents are written to the
+     * storage directly
+     */
+    long writeBehindNanos();
+
+    int writeBehindBatchSize();
+
     interface Builder extends StoreMapConfig.Builder<StorageConfig, StorageConfig.Builder> {
 
+        /**
+         * Queues the storage writes of the repository instead of performing them on the writing thread. The caches are
+         * still written directly. Repeated writes of the same document only keep the latest one, the queue is flushed
+         * in the given interval, once {@link #writeBehindBatchSize(int) enough writes} are pending and when the
+         * repository or pipeline is closed.
+         * <p>
+         * Writes that are still queued are not visible to other pipelines sharing the storage until they are flushed.
+         * Reads of this pipeline merge them in memory, except for the size of the repository and finds that page
+         * through the storage with a skip or limit. These flush the queue first, on the reading thread and while the
+         * repository is locked for reading.
+         */
+        @NotNull Builder writeBehind(long interval, @NotNull TimeUnit unit);
+
+        /**
+         * @param batchSize the number of pending writes that triggers a flush before the interval has passed,
+         *                  defaults to 500
+         */
+        @NotNull Builder writeBehindBatchSize(@Range(from = 1, to = Integer.MAX_VALUE) int batchSize);
+
     }
 }
@@ -16,7 +16,9 @@
 
 package de.natrox.pipeline.part.config;
 
+import de.natrox.common.validate.Check;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Range;
 import org.jetbrains.annotations.UnknownNullability;
 
 import java.util.concurrent.TimeUnit;
@@ -30,9 +32,27 @@ final class StoreMapConfigBuilderImpl {
 
     static class StorageBuilder extends AbstractPartBuilder<StorageConfig, StorageConfig.Builder> implements StorageConfig.Builder {
 
+        private long writeBehindNanos = -1;
+        private int writeBehindBatchSize = 500;
+
+        @Override
+        public @NotNull StorageConfig.Builder writeBehind(long interval, @NotNull TimeUnit unit) {
+            Check.notNull(unit, "unit");
+            Check.argCondition(interval <= 0, "interval");
+            this.writeBehindNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        @Override
+        public @NotNull StorageConfig.Builder writeBehindBatchSize(@Range(from = 1, to = Integer.MAX_VALUE) int batchSize) {
+            Check.argCondition(batchSize < 1, "batchSize");
+            this.writeBehindBatchSize = batchSize;
+            return this;
+        }
+
         @Override
         public @UnknownNullability StorageConfig build() {
-            return new StoreMapConfigImpl.StorageConfigImpl();
+            return new StoreMapConfigImpl.StorageConfigImpl(this.writeBehindNanos, this.writeBehindBatchSize);
         }
     }
 
@@ -40,6 +60,7 @@ static class StorageBuilder extends AbstractPartBuilder<StorageConfig, StorageCo
 
         protected long expireAfterWriteNanos = -1;
         protected long expireAfterAccessNanos = -1;
+        protected long refreshAfterWriteNanos = -1;
 
         @Override
         public @NotNull R expireAfterWrite(long time, @NotNull TimeUnit unit) {
@@ -52,21 +73,45 @@ static class StorageBuilder extends AbstractPartBuilder<StorageConfig, StorageCo
             this.expireAfterAccessNanos = unit.toNanos(time);
             return (R) this;
         }
+
+        @Override
+        public @NotNull R refreshAfterWrite(long time, @NotNull TimeUnit unit) {
+            this.refreshAfterWriteNanos = unit.toNanos(time);
+            return (R) this;
+        }
     }
 
     static class GlobalCacheBuilder extends AbstractCacheBuilder<GlobalCacheConfig, GlobalCacheConfig.Builder> implements GlobalCacheConfig.Builder {
 
         @Override
         public @UnknownNullability GlobalCacheConfig build() {
-            return new StoreMapConfigImpl.GlobalCacheConfigImpl(this.expireAfterWriteNanos, this.expireAfterAccessNanos);
+            return new StoreMapConfigImpl.GlobalCacheConfigImpl(this.expireAfterWriteNanos, this.expireAfterAccessNanos, this.refreshAfterWriteNanos);
         }
     }
 
     static class LocalCacheBuilder extends AbstractCacheBuilder<LocalCacheConfig, LocalCacheConfig.Builder> implements LocalCacheConfig.Builder {
 
+        private long maximumSize = -1;
+        private long maximumWeight = -1;
+
+        @Override
+        public @NotNull LocalCacheConfig.Builder maximumSize(@Range(from = 0, to = Long.MAX_VALUE) long maximumSize) {
+            Check.argCondition(maximumSize < 0, "maximumSize");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        @Override
+        public @NotNull LocalCacheConfig.Builder maximumWeight(@Range(from = 0, to = Long.MAX_VALUE) long maximumBytes) {
+            Check.argCondition(maximumBytes < 0, "maximumBytes");
+            this.maximumWeight = maximumBytes;
+            return this;
+        }
+
         @Override
         public @UnknownNullability LocalCacheConfig build() {
-            return new StoreMapConfigImpl.LocalCacheConfigImpl(this.expireAfterWriteNanos, this.expireAfterAccessNanos);
+            Check.argCondition(this.maximumSize >= 0 && this.maximumWeight >= 0, "maximumSize and maximumWeight cannot be combined");
+            return new StoreMapConfigImpl.LocalCacheConfigImpl(this.expireAfterWriteNanos, this.expireAfterAccessNanos, this.refreshAfterWriteNanos, this.maximumSize, this.maximumWeight);
         }
     }
 }
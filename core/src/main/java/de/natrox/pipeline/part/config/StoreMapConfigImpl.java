@@ -26,16 +26,35 @@ final static class StorageConfigImpl extends AbstractStoreMapConfig implements S
 
         final static StorageConfig DEFAULT = StorageConfig.builder().build();
 
+        private final long writeBehindNanos;
+        private final int writeBehindBatchSize;
+
+        StorageConfigImpl(long writeBehindNanos, int writeBehindBatchSize) {
+            this.writeBehindNanos = writeBehindNanos;
+            this.writeBehindBatchSize = writeBehindBatchSize;
+        }
+
+        @Override
+        public long writeBehindNanos() {
+            return this.writeBehindNanos;
+        }
+
+        @Override
+        public int writeBehindBatchSize() {
+            return this.writeBehindBatchSize;
+        }
     }
 
     static abstract sealed class AbstractCacheConfig extends AbstractStoreMapConfig implements CacheConfig {
 
         private final long expireAfterWriteNanos;
         private final long expireAfterAccessNanos;
+        private final long refreshAfterWriteNanos;
 
-        private AbstractCacheConfig(long expireAfterWriteNanos, long expireAfterAccessNanos) {
+        private AbstractCacheConfig(long expireAfterWriteNanos, long expireAfterAccessNanos, long refreshAfterWriteNanos) {
             this.expireAfterWriteNanos = expireAfterWriteNanos;
             this.expireAfterAccessNanos = expireAfterAccessNanos;
+            this.refreshAfterWriteNanos = refreshAfterWriteNanos;
         }
 
         @Override
@@ -47,14 +66,19 @@ public long expireAfterWriteNanos() {
         public long expireAfterAccessNanos() {
             return this.expireAfterAccessNanos;
         }
+
+        @Override
+        public long refreshAfterWriteNanos() {
+            return this.refreshAfterWriteNanos;
+        }
     }
 
     final static class GlobalCacheConfigImpl extends AbstractCacheConfig implements GlobalCacheConfig {
 
         final static GlobalCacheConfig DEFAULT = GlobalCacheConfig.builder().build();
 
-        GlobalCacheConfigImpl(long expireAfterWriteNanos, long expireAfterAccessNanos) {
-            super(expireAfterWriteNanos, expireAfterAccessNanos);
+        GlobalCacheConfigImpl(long expireAfterWriteNanos, long expireAfterAccessNanos, long refreshAfterWriteNanos) {
+            super(expireAfterWriteNanos, expireAfterAccessNanos, refreshAfterWriteNanos);
         }
     }
 
@@ -62,8 +86,23 @@ final static class LocalCacheConfigImpl extends AbstractCacheConfig implements L
 
         final static LocalCacheConfig DEFAULT = LocalCacheConfig.builder().build();
 
-        LocalCacheConfigImpl(long expireAfterWriteNanos, long expireAfterAccessNanos) {
-            super(expireAfterWriteNanos, expireAfterAccessNanos);
+        private final long maximumSize;
+        private final long maximumWeight;
+
+        LocalCacheConfigImpl(long expireAfterWriteNanos, long expireAfterAccessNanos, long refreshAfterWriteNanos, long maximumSize, long maximumWeight) {
+            super(expireAfterWriteNanos, expireAfterAccessNanos, refreshAfterWriteNanos);
+            this.maximumSize = maximumSize;
+            this.maximumWeight = maximumWeight;
+        }
+
+        @Override
+        public long maximumSize() {
+            return this.maximumSize;
+        }
+
+        @Override
+        public long maximumWeight() {
+            return this.maximumWeight;
         }
     }
 }
@@ -49,6 +49,12 @@ public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<Quer
         this.map.put(uniqueId, data);
     }
 
+    @Override
+    public void putAll(@NotNull Map<UUID, byte[]> entries, @NotNull Set<QueryStrategy> strategies) {
+        Check.notNull(entries, "entries");
+        this.map.putAll(entries);
+    }
+
     @Override
     public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.part.store;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A snapshot of the statistics of a cache part. Parts that do not record statistics report {@link #empty()}.
+ */
+@ApiStatus.Experimental
+public sealed interface CacheStats permits CacheStatsImpl {
+
+    static @NotNull CacheStats of(long hitCount, long missCount, long evictionCount, long evictionWeight) {
+        return new CacheStatsImpl(hitCount, missCount, evictionCount, evictionWeight);
+    }
+
+    static @NotNull CacheStats empty() {
+        return CacheStatsImpl.EMPTY;
+    }
+
+    long hitCount();
+
+    long missCount();
+
+    /**
+     * @return the ratio of lookups that hit the cache, {@code 1.0} if there were no lookups yet
+     */
+    default double hitRate() {
+        long requestCount = this.hitCount() + this.missCount();
+        return requestCount == 0 ? 1.0 : (double) this.hitCount() / requestCount;
+    }
+
+    long evictionCount();
+
+    /**
+     * @return the summed up weight of the evicted documents, which is their size in bytes for weight-bounded caches
+     */
+    long evictionWeight();
+
+    @NotNull CacheStats plus(@NotNull CacheStats other);
+
+}
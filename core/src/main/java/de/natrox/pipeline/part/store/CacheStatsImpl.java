@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.part.store;
+
+import de.natrox.common.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+@SuppressWarnings("ClassCanBeRecord")
+final class CacheStatsImpl implements CacheStats {
+
+    final static CacheStats EMPTY = new CacheStatsImpl(0, 0, 0, 0);
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long evictionWeight;
+
+    CacheStatsImpl(long hitCount, long missCount, long evictionCount, long evictionWeight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+    }
+
+    @Override
+    public long hitCount() {
+        return this.hitCount;
+    }
+
+    @Override
+    public long missCount() {
+        return this.missCount;
+    }
+
+    @Override
+    public long evictionCount() {
+        return this.evictionCount;
+    }
+
+    @Override
+    public long evictionWeight() {
+        return this.evictionWeight;
+    }
+
+    @Override
+    public @NotNull CacheStats plus(@NotNull CacheStats other) {
+        Check.notNull(other, "other");
+        return new CacheStatsImpl(
+            this.hitCount + other.hitCount(),
+            this.missCount + other.missCount(),
+            this.evictionCount + other.evictionCount(),
+            this.evictionWeight + other.evictionWeight()
+        );
+    }
+}
@@ -16,8 +16,12 @@
 
 package de.natrox.pipeline.part.store;
 
+import de.natrox.common.container.Pair;
 import de.natrox.common.validate.Check;
 import de.natrox.pipeline.repository.QueryStrategy;
+import de.natrox.pipeline.stream.BoundedStream;
+import de.natrox.pipeline.stream.CloseableIterator;
+import de.natrox.pipeline.stream.PipeStream;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -29,6 +33,22 @@ public interface StoreMap {
 
     byte @Nullable [] get(@NotNull UUID uniqueId);
 
+    /**
+     * Looks up several documents at once. Stores that can fetch many keys in a single round trip override this.
+     *
+     * @return the documents that exist, keys without a document are left out
+     */
+    default @NotNull Map<UUID, byte[]> getAll(@NotNull Collection<UUID> uniqueIds) {
+        Check.notNull(uniqueIds, "uniqueIds");
+        Map<UUID, byte[]> entries = new HashMap<>();
+        for (UUID uniqueId : uniqueIds) {
+            byte[] data = this.get(uniqueId);
+            if (data != null)
+                entries.put(uniqueId, data);
+        }
+        return entries;
+    }
+
     void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<QueryStrategy> strategies);
 
     default void put(@NotNull UUID uniqueId, byte @NotNull [] data, QueryStrategy @NotNull ... strategies) {
@@ -43,6 +63,27 @@ default void put(@NotNull UUID uniqueId, byte @NotNull [] data, QueryStrategy @N
         this.put(uniqueId, data, strategySet);
     }
 
+    /**
+     * Writes several documents at once. Stores that can write many keys in a single round trip override this.
+     */
+    default void putAll(@NotNull Map<UUID, byte[]> entries, @NotNull Set<QueryStrategy> strategies) {
+        Check.notNull(entries, "entries");
+        for (Map.Entry<UUID, byte[]> entry : entries.entrySet()) {
+            this.put(entry.getKey(), entry.getValue(), strategies);
+        }
+    }
+
+    default void putAll(@NotNull Map<UUID, byte[]> entries, QueryStrategy @NotNull ... strategies) {
+        Check.notNull(entries, "entries");
+        Check.notNull(strategies, "strategies");
+        Set<QueryStrategy> strategySet = new HashSet<>(Set.of(strategies));
+        if(strategySet.size() <= 0) {
+            strategySet.add(QueryStrategy.ALL);
+        }
+
+        this.putAll(entries, strategySet);
+    }
+
     boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies);
 
     default boolean contains(@NotNull UUID uniqueId, QueryStrategy @NotNull ... strategies) {
@@ -62,6 +103,26 @@ default boolean contains(@NotNull UUID uniqueId, QueryStrategy @NotNull ... stra
 
     @NotNull Map<UUID, byte[]> entries();
 
+    /**
+     * Iterates over all entries lazily. Stores that can read their entries through a database cursor or in pages
+     * override this, the default iterates over {@link #entries()}.
+     *
+     * @return an iterator that has to be exhausted or closed
+     */
+    default @NotNull CloseableIterator<Pair<UUID, byte[]>> scan() {
+        return CloseableIterator.of(PipeStream.fromMap(this.entries()).iterator());
+    }
+
+    /**
+     * Iterates over the entries like {@link #scan()}, but leaves out the first {@code skip} entries and stops after
+     * {@code limit} entries. Stores that can page natively override this, so skipped entries are never transferred.
+     *
+     * @return an iterator that has to be exhausted or closed
+     */
+    default @NotNull CloseableIterator<Pair<UUID, byte[]>> scan(long skip, long limit) {
+        return new BoundedStream<>(skip, limit, this::scan).iterator();
+    }
+
     void remove(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies);
 
     default void remove(@NotNull UUID uniqueId, QueryStrategy @NotNull ... strategies) {
@@ -78,4 +139,11 @@ default void remove(@NotNull UUID uniqueId, QueryStrategy @NotNull ... strategie
 
     long size();
 
+    /**
+     * @return the statistics of this map if it belongs to a cache part that records them
+     */
+    default @NotNull CacheStats stats() {
+        return CacheStats.empty();
+    }
+
 }
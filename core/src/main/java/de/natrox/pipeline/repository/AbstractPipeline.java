@@ -18,6 +18,7 @@
 
 import de.natrox.common.validate.Check;
 import de.natrox.pipeline.concurrent.LockService;
+import de.natrox.pipeline.concurrent.SynchronizerConfig;
 import de.natrox.pipeline.exception.PipelineException;
 import de.natrox.pipeline.document.serialize.DocumentSerializer;
 import de.natrox.pipeline.object.ObjectData;
@@ -31,6 +32,9 @@
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 sealed abstract class AbstractPipeline implements Pipeline permits GlobalPipeline, LocalPipeline {
 
@@ -38,15 +42,19 @@ sealed abstract class AbstractPipeline implements Pipeline permits GlobalPipelin
     private final @Nullable Updater updater;
 
     private final DocumentSerializer documentSerializer;
+    private final ExecutorService synchronizerExecutor;
     private final DocumentRepositoryFactory documentRepositoryFactory;
     private final ObjectRepositoryFactory objectRepositoryFactory;
 
     private PipelineStore pipelineStore;
+    private ScheduledExecutorService writeBehindScheduler;
 
-    AbstractPipeline(@NotNull PartBundle<?> partBundle) {
+    AbstractPipeline(@NotNull PartBundle<?> partBundle, @NotNull SynchronizerConfig synchronizerConfig) {
         Check.notNull(partBundle, "partBundle");
+        Check.notNull(synchronizerConfig, "synchronizerConfig");
         this.partBundle = partBundle;
         this.documentSerializer = DocumentSerializer.create();
+        this.synchronizerExecutor = DataSynchronizer.createExecutor(synchronizerConfig);
         this.pipelineStore = partBundle.createStore(this);
         this.updater = this.pipelineStore.updater();
 
@@ -124,6 +132,12 @@ public <T extends ObjectData> void destroyRepository(@NotNull Class<T> type) {
         return this.documentSerializer;
     }
 
+    @Override
+    public @NotNull PipelineMetrics metrics() {
+        this.checkOpened();
+        return this.documentRepositoryFactory.metrics();
+    }
+
     @Override
     public boolean isClosed() {
         return this.pipelineStore == null || pipelineStore.isClosed();
@@ -131,17 +145,25 @@ public boolean isClosed() {
 
     @Override
     public void close() {
-        this.pipelineStore.close();
-        this.documentRepositoryFactory.clear();
+        // Closing the repositories flushes their queued storage writes, so this has to happen before the stores close
         this.objectRepositoryFactory.clear();
+        this.documentRepositoryFactory.clear();
+        synchronized (this) {
+            if (this.writeBehindScheduler != null) {
+                this.writeBehindScheduler.shutdown();
+            }
+        }
+        // Pending synchronizations still run, new ones are dropped
+        this.synchronizerExecutor.shutdown();
+        this.pipelineStore.close();
 
         this.pipelineStore = null;
     }
 
     @Override
     public void closeProviders() {
-        this.partBundle.close();
         this.close();
+        this.partBundle.close();
     }
 
     private void checkOpened() {
@@ -150,20 +172,48 @@ private void checkOpened() {
         throw new PipelineException("Pipeline is closed");
     }
 
+    boolean sharesStorage() {
+        return this.partBundle.sharesStorage();
+    }
+
     public @Nullable Updater updater() {
         return this.updater;
     }
 
+    @NotNull ExecutorService synchronizerExecutor() {
+        return this.synchronizerExecutor;
+    }
+
+    // Only created once a repository uses write-behind
+    synchronized @NotNull ScheduledExecutorService writeBehindScheduler() {
+        if (this.writeBehindScheduler == null) {
+            this.writeBehindScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "pipeline-write-behind");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this.writeBehindScheduler;
+    }
+
     @SuppressWarnings("unchecked")
     static abstract class Builder<R extends Pipeline.Builder<R>> implements Pipeline.Builder<R> {
 
         protected GlobalCacheProvider globalCacheProvider;
         protected LocalCacheProvider localCacheProvider;
+        protected SynchronizerConfig synchronizerConfig = SynchronizerConfig.defaults();
 
         protected Builder() {
 
         }
 
+        @Override
+        public @NotNull R synchronizer(@NotNull SynchronizerConfig config) {
+            Check.notNull(config, "config");
+            this.synchronizerConfig = config;
+            return (R) this;
+        }
+
         @Override
         public @NotNull R globalCache(@NotNull GlobalCacheProvider provider) {
             Check.notNull(provider, "provider");
@@ -188,6 +238,11 @@ public PartBundle(T storageProvider, GlobalCacheProvider globalCacheProvider, Lo
 
         public abstract void close();
 
+        /**
+         * @return whether other pipelines may write to the storage
+         */
+        public abstract boolean sharesStorage();
+
         public @NotNull T storageProvider() {
             return this.storageProvider;
         }
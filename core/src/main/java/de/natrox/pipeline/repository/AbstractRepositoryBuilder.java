@@ -22,6 +22,9 @@
 import de.natrox.pipeline.part.config.StorageConfig;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 @SuppressWarnings("unchecked")
 abstract non-sealed class AbstractRepositoryBuilder<T extends Repository<?>, R extends Repository.Builder<T, R>> implements Repository.Builder<T, R> {
 
@@ -30,6 +33,7 @@
     protected GlobalCacheConfig globalCacheConfig = GlobalCacheConfig.defaults();
     protected boolean useLocalCache = false;
     protected LocalCacheConfig localCacheConfig = LocalCacheConfig.defaults();
+    protected final Set<String> indexes = new LinkedHashSet<>();
 
     AbstractRepositoryBuilder(StorageConfig storageConfig) {
         this.storageConfig = storageConfig;
@@ -50,4 +54,14 @@
         this.useLocalCache = true;
         return (R) this;
     }
+
+    @Override
+    public @NotNull R index(@NotNull String... fields) {
+        Check.notNull(fields, "fields");
+        for (String field : fields) {
+            Check.notNull(field, "field");
+            this.indexes.add(field);
+        }
+        return (R) this;
+    }
 }
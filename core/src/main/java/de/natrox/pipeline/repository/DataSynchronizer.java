@@ -16,21 +16,33 @@
 
 package de.natrox.pipeline.repository;
 
-import de.natrox.common.runnable.CatchingRunnable;
 import de.natrox.common.validate.Check;
+import de.natrox.pipeline.concurrent.SynchronizerConfig;
+import de.natrox.pipeline.exception.PipelineException;
 import de.natrox.pipeline.part.store.StoreMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 final class DataSynchronizer {
 
+    private final static String THREAD_NAME = "pipeline-synchronizer-";
+
     private final StoreMap storage;
     private final @Nullable StoreMap globalCache;
     private final @Nullable StoreMap localCache;
@@ -38,31 +50,102 @@ final class DataSynchronizer {
 
     private volatile boolean closed;
 
-    DataSynchronizer(StoreMap storageMap, @Nullable StoreMap globalCacheMap, @Nullable StoreMap localCacheMap) {
+    DataSynchronizer(StoreMap storageMap, @Nullable StoreMap globalCacheMap, @Nullable StoreMap localCacheMap, ExecutorService executorService) {
         this.storage = storageMap;
         this.globalCache = globalCacheMap;
         this.localCache = localCacheMap;
-        this.executorService = Executors.newCachedThreadPool();
+        this.executorService = executorService;
         this.closed = false;
     }
 
+    /**
+     * Creates the executor that all synchronizers of a pipeline share. It runs at most the configured number of
+     * synchronizations at once and queues at most the configured number of further ones, synchronizations beyond
+     * that are handled by the rejection policy.
+     */
+    static @NotNull ExecutorService createExecutor(@NotNull SynchronizerConfig config) {
+        Check.notNull(config, "config");
+        BlockingQueue<Runnable> queue = config.queueCapacity() == 0
+            ? new SynchronousQueue<>()
+            : new ArrayBlockingQueue<>(config.queueCapacity());
+        ThreadFactory threadFactory = config.virtualThreads() ? virtualThreadFactory() : platformThreadFactory();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            config.threads(),
+            config.threads(),
+            60,
+            TimeUnit.SECONDS,
+            queue,
+            threadFactory,
+            new RejectionHandler(config.rejectionPolicy())
+        );
+        // Idle pipelines do not keep their threads around
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Looked up reflectively, since the pipeline itself is built for Java 17
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException exception) {
+            throw new PipelineException("Virtual threads require Java 21 or newer", exception);
+        }
+    }
+
     public CompletableFuture<Boolean> synchronizeTo(@NotNull UUID uniqueId, byte @NotNull [] data, DataSourceType @NotNull ... destinations) {
         Check.notNull(uniqueId, "uniqueId");
         Check.notNull(data, "data");
         Check.notNull(destinations, "destinations");
-        if (this.isOpen())
+        if (!this.isOpen())
+            return CompletableFuture.completedFuture(false);
+
+        SyncTask<Boolean> task = new SyncTask<>(() -> this.to(uniqueId, data, destinations), false);
+        this.executorService.execute(task);
+        return task.future;
+    }
+
+    /**
+     * Fills the given cache parts with a document that was read from another part, unless the document was written or
+     * removed since the given version was taken before the read.
+     */
+    public CompletableFuture<Boolean> synchronizeTo(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull WriteVersions writeVersions, long version, DataSourceType @NotNull ... destinations) {
+        Check.notNull(uniqueId, "uniqueId");
+        Check.notNull(data, "data");
+        Check.notNull(writeVersions, "writeVersions");
+        Check.notNull(destinations, "destinations");
+        if (!this.isOpen())
             return CompletableFuture.completedFuture(false);
 
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
-        this.executorService.submit(new CatchingRunnable(() -> future.complete(this.to(uniqueId, data, destinations))));
-        return future;
+        SyncTask<Boolean> task = new SyncTask<>(() -> {
+            if (!writeVersions.unchanged(uniqueId, version) || !this.to(uniqueId, data, destinations))
+                return false;
+            if (writeVersions.unchanged(uniqueId, version))
+                return true;
+            // A write in between may have been overwritten, the next read loads the document again instead
+            this.removeFrom(uniqueId, destinations);
+            return false;
+        }, false);
+        this.executorService.execute(task);
+        return task.future;
     }
 
     private boolean to(@NotNull UUID uniqueId, byte @NotNull [] data, DataSourceType @NotNull ... destinations) {
         Check.notNull(uniqueId, "uniqueId");
         Check.notNull(data, "data");
         Check.notNull(destinations, "destinations");
-        if (this.isOpen())
+        if (!this.isOpen())
             return false;
 
         List<DataSourceType> destinationList = Arrays.asList(destinations);
@@ -78,21 +161,31 @@ private boolean to(@NotNull UUID uniqueId, byte @NotNull [] data, DataSourceType
         return true;
     }
 
+    private void removeFrom(UUID uniqueId, DataSourceType... destinations) {
+        List<DataSourceType> destinationList = Arrays.asList(destinations);
+        if (this.localCache != null && destinationList.contains(DataSourceType.LOCAL_CACHE)) {
+            this.localCache.remove(uniqueId, Set.of(QueryStrategy.ALL));
+        }
+        if (this.globalCache != null && destinationList.contains(DataSourceType.GLOBAL_CACHE)) {
+            this.globalCache.remove(uniqueId, Set.of(QueryStrategy.ALL));
+        }
+    }
+
     public CompletableFuture<byte[]> synchronizeFom(@NotNull UUID uniqueId, @NotNull DataSourceType source) {
         Check.notNull(uniqueId, "uniqueId");
         Check.notNull(source, "source");
-        if (this.isOpen())
+        if (!this.isOpen())
             return CompletableFuture.completedFuture(null);
 
-        CompletableFuture<byte[]> future = new CompletableFuture<>();
-        this.executorService.submit(new CatchingRunnable(() -> future.complete(this.from(uniqueId, source))));
-        return future;
+        SyncTask<byte[]> task = new SyncTask<>(() -> this.from(uniqueId, source), null);
+        this.executorService.execute(task);
+        return task.future;
     }
 
     public byte[] from(@NotNull UUID uniqueId, @NotNull DataSourceType source) {
         Check.notNull(uniqueId, "uniqueId");
         Check.notNull(source, "source");
-        if (this.isOpen())
+        if (!this.isOpen())
             return null;
 
         if (this.localCache != null && source.equals(DataSourceType.LOCAL_CACHE)) {
@@ -109,19 +202,19 @@ public CompletableFuture<Boolean> synchronizeFromTo(@NotNull UUID uniqueId, @Not
         Check.notNull(uniqueId, "uniqueId");
         Check.notNull(source, "source");
         Check.notNull(destinations, "destinations");
-        if (this.isOpen())
+        if (!this.isOpen())
             return CompletableFuture.completedFuture(false);
 
-        CompletableFuture<Boolean> future = new CompletableFuture<>();
-        this.executorService.submit(new CatchingRunnable(() -> future.complete(this.fromTo(uniqueId, source, destinations))));
-        return future;
+        SyncTask<Boolean> task = new SyncTask<>(() -> this.fromTo(uniqueId, source, destinations), false);
+        this.executorService.execute(task);
+        return task.future;
     }
 
     public boolean fromTo(@NotNull UUID uniqueId, @NotNull DataSourceType source, DataSourceType @NotNull ... destinations) {
         Check.notNull(uniqueId, "uniqueId");
         Check.notNull(source, "source");
         Check.notNull(destinations, "destinations");
-        if (this.isOpen())
+        if (!this.isOpen())
             return false;
 
         byte[] documentData = from(uniqueId, source);
@@ -136,9 +229,9 @@ public boolean isOpen() {
         return !this.closed;
     }
 
+    // The executor is shared with the other synchronizers of the pipeline and shut down by the pipeline
     public void close() {
         this.closed = true;
-        this.executorService.shutdown();
     }
 
     public enum DataSourceType {
@@ -146,4 +239,63 @@ public enum DataSourceType {
         GLOBAL_CACHE,
         STORAGE
     }
+
+    private final static class SyncTask<T> implements Runnable {
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final Supplier<T> supplier;
+        private final T rejectedResult;
+
+        SyncTask(Supplier<T> supplier, T rejectedResult) {
+            this.supplier = supplier;
+            this.rejectedResult = rejectedResult;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.future.complete(this.supplier.get());
+            } catch (Throwable throwable) {
+                this.future.completeExceptionally(throwable);
+            }
+        }
+
+        void reject() {
+            this.future.complete(this.rejectedResult);
+        }
+    }
+
+    private final static class RejectionHandler implements RejectedExecutionHandler {
+
+        private final SynchronizerConfig.RejectionPolicy rejectionPolicy;
+
+        RejectionHandler(SynchronizerConfig.RejectionPolicy rejectionPolicy) {
+            this.rejectionPolicy = rejectionPolicy;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+            if (!executor.isShutdown()) {
+                switch (this.rejectionPolicy) {
+                    case CALLER_RUNS -> {
+                        runnable.run();
+                        return;
+                    }
+                    case BLOCK -> {
+                        try {
+                            executor.getQueue().put(runnable);
+                            return;
+                        } catch (InterruptedException exception) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    case DISCARD -> {
+                    }
+                }
+            }
+            // Dropped synchronizations complete as if there was nothing to synchronize
+            if (runnable instanceof SyncTask<?> task)
+                task.reject();
+        }
+    }
 }
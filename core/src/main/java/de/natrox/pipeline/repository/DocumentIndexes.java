@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.common.container.Pair;
+import de.natrox.pipeline.condition.AndCondition;
+import de.natrox.pipeline.condition.Condition;
+import de.natrox.pipeline.condition.FieldCondition;
+import de.natrox.pipeline.condition.OrCondition;
+import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.document.serialize.DocumentSerializer;
+import de.natrox.pipeline.part.store.StoreMap;
+import de.natrox.pipeline.stream.CloseableIterator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The secondary indexes of one repository.
+ * <p>
+ * The indexes are held in memory. They are built with one scan of the storage before the first find that needs them
+ * and then kept up to date with the writes of the repository. As other pipelines could write to a global storage
+ * unseen, indexes are only created for repositories on a local storage or a global one declared exclusive.
+ */
+final class DocumentIndexes {
+
+    private final Map<String, FieldIndex> indexes;
+    private volatile boolean built;
+
+    DocumentIndexes(@NotNull Collection<String> fields) {
+        this.indexes = fields.stream().collect(Collectors.toUnmodifiableMap(Function.identity(), FieldIndex::new));
+    }
+
+    boolean isEmpty() {
+        return this.indexes.isEmpty();
+    }
+
+    /**
+     * Builds the indexes from the entries of the store, unless that already happened.
+     */
+    synchronized void build(@NotNull StoreMap storeMap, @NotNull DocumentSerializer documentSerializer) {
+        if (this.built || this.indexes.isEmpty())
+            return;
+
+        try (CloseableIterator<Pair<UUID, byte[]>> scan = storeMap.scan()) {
+            while (scan.hasNext()) {
+                Pair<UUID, byte[]> entry = scan.next();
+                this.put(entry.first(), documentSerializer.read(entry.second()));
+            }
+        }
+        this.built = true;
+    }
+
+    /**
+     * Returns whether a write needs to update the indexes, which is not the case before they are built.
+     */
+    boolean isBuilt() {
+        return this.built;
+    }
+
+    void put(@NotNull UUID uniqueId, @NotNull DocumentData document) {
+        for (FieldIndex index : this.indexes.values()) {
+            index.put(uniqueId, document);
+        }
+    }
+
+    void remove(@NotNull UUID uniqueId) {
+        for (FieldIndex index : this.indexes.values()) {
+            index.remove(uniqueId);
+        }
+    }
+
+    void clear() {
+        for (FieldIndex index : this.indexes.values()) {
+            index.clear();
+        }
+    }
+
+    /**
+     * Returns the ids of the documents that may match the condition, or {@code null} if the indexes cannot narrow it
+     * down and the store has to be scanned. The ids keep the order of the index lookups they came from.
+     */
+    @Nullable Set<UUID> candidates(@NotNull Condition condition) {
+        if (condition instanceof AndCondition andCondition) {
+            // Every part has to match, so any part the indexes can answer narrows down the result
+            Set<UUID> candidates = null;
+            for (Condition part : andCondition.conditions()) {
+                Set<UUID> partCandidates = this.candidates(part);
+                if (partCandidates == null)
+                    continue;
+                if (candidates == null) {
+                    candidates = new LinkedHashSet<>(partCandidates);
+                } else {
+                    candidates.retainAll(partCandidates);
+                }
+            }
+            return candidates;
+        }
+
+        if (condition instanceof OrCondition orCondition) {
+            // One part the indexes cannot answer may match any document
+            Set<UUID> candidates = new LinkedHashSet<>();
+            for (Condition part : orCondition.conditions()) {
+                Set<UUID> partCandidates = this.candidates(part);
+                if (partCandidates == null)
+                    return null;
+                candidates.addAll(partCandidates);
+            }
+            return candidates;
+        }
+
+        if (condition instanceof FieldCondition fieldCondition) {
+            FieldIndex index = this.indexes.get(fieldCondition.field());
+            if (index != null)
+                return index.lookup(condition);
+        }
+        return null;
+    }
+}
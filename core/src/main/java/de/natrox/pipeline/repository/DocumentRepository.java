@@ -20,6 +20,8 @@
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,8 +30,21 @@ public sealed interface DocumentRepository extends Repository<DocumentData> perm
 
     void insert(@NotNull UUID uniqueId, @NotNull DocumentData document, QueryStrategy @NotNull ... strategies);
 
+    /**
+     * Inserts several documents at once, every part writes them with one batched request where supported.
+     */
+    void insertAll(@NotNull Map<UUID, DocumentData> documents, QueryStrategy @NotNull ... strategies);
+
     @NotNull Optional<DocumentData> get(@NotNull UUID uniqueId);
 
+    /**
+     * Gets several documents at once. Documents found in the local cache are returned without asking the global cache
+     * or storage, the remaining ones are fetched from those with one batched request per part where supported.
+     *
+     * @return the documents that exist, by their id
+     */
+    @NotNull Map<UUID, DocumentData> getAll(@NotNull Collection<UUID> uniqueIds);
+
     @NotNull String name();
 
     @ApiStatus.Experimental
@@ -60,6 +60,10 @@ public DocumentRepositoryImpl repository(String name) {
     }
 
     public DocumentRepositoryImpl createRepository(String name, RepositoryOptions.DocumentOptions options) {
+        // Other pipelines write to a shared storage without passing the writes to the indexes of this one
+        if (!options.indexes().isEmpty() && this.pipeline.sharesStorage())
+            throw new IllegalStateException("Indexes are only supported on a local or exclusive storage, repository " + name + " uses a shared one");
+
         try {
             this.writeLock.lock();
             if (this.repositoryMap.containsKey(name)) {
@@ -77,6 +81,20 @@ public DocumentRepositoryImpl createRepository(String name, RepositoryOptions.Do
         }
     }
 
+    public PipelineMetrics metrics() {
+        try {
+            this.writeLock.lock();
+            Map<String, RepositoryMetrics> repositories = new HashMap<>();
+            for (DocumentRepositoryImpl repository : this.repositoryMap.values()) {
+                if (!repository.isDropped() && repository.isOpen())
+                    repositories.put(repository.name(), repository.metrics());
+            }
+            return new PipelineMetricsImpl(repositories);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
     public void clear() {
         try {
             this.writeLock.lock();
@@ -24,27 +24,25 @@
 import de.natrox.pipeline.find.FindOptions;
 import de.natrox.pipeline.document.serialize.DocumentSerializer;
 import de.natrox.pipeline.part.config.StorageConfig;
-import de.natrox.pipeline.sort.SortEntry;
-import de.natrox.pipeline.sort.SortOrder;
-import de.natrox.pipeline.stream.BoundedStream;
-import de.natrox.pipeline.stream.ConditionalStream;
 import de.natrox.pipeline.stream.DocumentStream;
 import de.natrox.pipeline.stream.PipeStream;
-import de.natrox.pipeline.stream.SortedDocumentStream;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.locks.Lock;
-import java.util.stream.Collectors;
 
 final class DocumentRepositoryImpl implements DocumentRepository {
 
     private final String repositoryName;
     private final DocumentSerializer documentSerializer;
     private final RepositoryOptions.DocumentOptions options;
+    private final DocumentIndexes indexes;
 
     private final Lock writeLock;
     private final Lock readLock;
@@ -58,6 +56,7 @@ final class DocumentRepositoryImpl implements DocumentRepository {
         this.pipelineMap = pipelineMap;
         this.documentSerializer = pipeline.documentMapper();
         this.options = options;
+        this.indexes = new DocumentIndexes(options.indexes());
         this.readLock = lockService.getReadLock(repositoryName);
         this.writeLock = lockService.getWriteLock(repositoryName);
     }
@@ -79,46 +78,66 @@ final class DocumentRepositoryImpl implements DocumentRepository {
     }
 
     @Override
-    public @NotNull DocumentStream find(@NotNull FindOptions findOptions) {
-        Check.notNull(findOptions, "findOptions");
+    public @NotNull Map<UUID, DocumentData> getAll(@NotNull Collection<UUID> uniqueIds) {
+        Map<UUID, byte[]> entries = this.getAllBytes(uniqueIds);
+        Map<UUID, DocumentData> documents = new HashMap<>(entries.size());
+        for (Map.Entry<UUID, byte[]> entry : entries.entrySet()) {
+            documents.put(entry.getKey(), this.documentSerializer.read(entry.getValue()));
+        }
+        return documents;
+    }
+
+    @NotNull Map<UUID, byte[]> getAllBytes(@NotNull Collection<UUID> uniqueIds) {
+        Check.notNull(uniqueIds, "uniqueIds");
 
         try {
             this.readLock.lock();
             this.checkOpened();
-            PipeStream<Pair<UUID, DocumentData>> stream = PipeStream.fromIterable(
-                this.pipelineMap
-                    .entries()
-                    .entrySet()
-                    .stream()
-                    .map(entry -> Pair.of(entry.getKey(), this.documentSerializer.read(entry.getValue())))
-                    .collect(Collectors.toList())
-            );
-
-            Condition condition = findOptions.condition();
-            if (condition != null) {
-                stream = new ConditionalStream(condition, stream);
-            }
+            return this.pipelineMap.getAll(uniqueIds);
+        } finally {
+            this.readLock.unlock();
+        }
+    }
 
-            SortEntry sortBy = findOptions.sortBy();
-            if (sortBy != null) {
-                List<Pair<String, SortOrder>> blockingSortOrder = sortBy.sortingOrders();
-                if (!blockingSortOrder.isEmpty()) {
-                    stream = new SortedDocumentStream(blockingSortOrder, stream);
-                }
-            }
+    byte @Nullable [] getBytes(@NotNull UUID uniqueId) {
+        Check.notNull(uniqueId, "uniqueId");
 
-            if (findOptions.limit() != -1 || findOptions.skip() != -1) {
-                long limit = findOptions.limit() == -1 ? Long.MAX_VALUE : findOptions.limit();
-                long skip = findOptions.skip() == -1 ? 0 : findOptions.skip();
-                stream = new BoundedStream<>(skip, limit, stream);
-            }
+        try {
+            this.readLock.lock();
+            this.checkOpened();
+            return this.pipelineMap.get(uniqueId);
+        } finally {
+            this.readLock.unlock();
+        }
+    }
+
+    @Override
+    public @NotNull DocumentStream find(@NotNull FindOptions findOptions) {
+        Check.notNull(findOptions, "findOptions");
 
+        try {
+            this.readLock.lock();
+            this.checkOpened();
+            PipeStream<Pair<UUID, DocumentData>> stream = new FindPlan(findOptions, this.candidates(findOptions)).stream(this.pipelineMap, this.documentSerializer);
             return new DocumentStream(stream);
         } finally {
             this.readLock.unlock();
         }
     }
 
+    @Override
+    public long count(@NotNull FindOptions findOptions) {
+        Check.notNull(findOptions, "findOptions");
+
+        try {
+            this.readLock.lock();
+            this.checkOpened();
+            return new FindPlan(findOptions, this.candidates(findOptions)).count(this.pipelineMap, this.documentSerializer);
+        } finally {
+            this.readLock.unlock();
+        }
+    }
+
     @Override
     public void insert(@NotNull UUID uniqueId, @NotNull DocumentData document, QueryStrategy @NotNull ... strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -127,9 +146,52 @@ public void insert(@NotNull UUID uniqueId, @NotNull DocumentData document, Query
         try {
             this.writeLock.lock();
             this.checkOpened();
-            DocumentData newDoc = document.clone();
+            // The serialized bytes are the snapshot, so the document itself does not need to be copied first
+            this.pipelineMap.put(uniqueId, this.documentSerializer.write(document), strategies);
+            if (this.indexes.isBuilt() && this.writesStorage(strategies))
+                this.indexes.put(uniqueId, document);
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void insertAll(@NotNull Map<UUID, DocumentData> documents, QueryStrategy @NotNull ... strategies) {
+        Check.notNull(documents, "documents");
+        Map<UUID, byte[]> entries = new HashMap<>(documents.size());
+        for (Map.Entry<UUID, DocumentData> entry : documents.entrySet()) {
+            entries.put(entry.getKey(), this.documentSerializer.write(entry.getValue()));
+        }
+        this.insertAllBytes(entries, strategies);
+    }
 
-            this.pipelineMap.put(uniqueId, this.documentSerializer.write(newDoc), strategies);
+    void insertAllBytes(@NotNull Map<UUID, byte[]> entries, QueryStrategy @NotNull ... strategies) {
+        Check.notNull(entries, "entries");
+
+        try {
+            this.writeLock.lock();
+            this.checkOpened();
+            this.pipelineMap.putAll(entries, strategies);
+            if (this.indexes.isBuilt() && this.writesStorage(strategies)) {
+                for (Map.Entry<UUID, byte[]> entry : entries.entrySet()) {
+                    this.indexes.put(entry.getKey(), this.documentSerializer.read(entry.getValue()));
+                }
+            }
+        } finally {
+            this.writeLock.unlock();
+        }
+    }
+
+    void insertBytes(@NotNull UUID uniqueId, byte @NotNull [] data, QueryStrategy @NotNull ... strategies) {
+        Check.notNull(uniqueId, "uniqueId");
+        Check.notNull(data, "data");
+
+        try {
+            this.writeLock.lock();
+            this.checkOpened();
+            this.pipelineMap.put(uniqueId, data, strategies);
+            if (this.indexes.isBuilt() && this.writesStorage(strategies))
+                this.indexes.put(uniqueId, this.documentSerializer.read(data));
         } finally {
             this.writeLock.unlock();
         }
@@ -158,6 +220,8 @@ public void remove(@NotNull UUID uniqueId, QueryStrategy @NotNull ... strategies
             this.writeLock.lock();
             this.checkOpened();
             this.pipelineMap.remove(uniqueId, strategies);
+            if (this.writesStorage(strategies))
+                this.indexes.remove(uniqueId);
         } finally {
             this.writeLock.unlock();
         }
@@ -174,6 +238,7 @@ public void clear() {
             this.writeLock.lock();
             this.checkOpened();
             this.pipelineMap.clear();
+            this.indexes.clear();
         } finally {
             this.writeLock.unlock();
         }
@@ -183,7 +248,9 @@ public void clear() {
     public void close() {
         try {
             this.writeLock.lock();
-            this.pipelineStore.closeMap(this.repositoryName);
+            // Object repositories close the document repository they wrap as well
+            if (this.pipelineStore == null)
+                return;
             this.pipelineMap.close();
 
             this.pipelineStore = null;
@@ -204,6 +271,8 @@ public void drop() {
             this.writeLock.lock();
             this.checkOpened();
 
+            // Queued storage writes would only recreate the removed map
+            this.pipelineMap.close(false);
             this.pipelineStore.removeMap(this.repositoryName);
             this.pipelineStore.closeMap(this.repositoryName);
 
@@ -235,6 +304,33 @@ public long size() {
         }
     }
 
+    @Override
+    public @NotNull RepositoryMetrics metrics() {
+        try {
+            this.readLock.lock();
+            this.checkOpened();
+            return this.pipelineMap.metrics();
+        } finally {
+            this.readLock.unlock();
+        }
+    }
+
+    private @Nullable Set<UUID> candidates(FindOptions findOptions) {
+        Condition condition = findOptions.condition();
+        if (condition == null || this.indexes.isEmpty())
+            return null;
+        this.indexes.build(this.pipelineMap, this.documentSerializer);
+        return this.indexes.candidates(condition);
+    }
+
+    private boolean writesStorage(QueryStrategy... strategies) {
+        for (QueryStrategy strategy : strategies) {
+            if (strategy == QueryStrategy.GLOBAL_STORAGE || strategy == QueryStrategy.ALL)
+                return true;
+        }
+        return strategies.length == 0;
+    }
+
     private void checkOpened() {
         if (this.isOpen())
             return;
@@ -255,7 +351,7 @@ final static class BuilderImpl extends AbstractRepositoryBuilder<DocumentReposit
         @Override
         public DocumentRepository build() {
             return this.factory.createRepository(this.name, new RepositoryOptions.DocumentOptions(
-                this.storageConfig, this.useGlobalCache, this.globalCacheConfig, this.useLocalCache, this.localCacheConfig
+                this.storageConfig, this.useGlobalCache, this.globalCacheConfig, this.useLocalCache, this.localCacheConfig, this.indexes
             ));
         }
     }
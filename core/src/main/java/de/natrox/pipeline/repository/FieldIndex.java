@@ -0,0 +1,143 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.pipeline.condition.Condition;
+import de.natrox.pipeline.condition.EqualsCondition;
+import de.natrox.pipeline.condition.FieldCondition;
+import de.natrox.pipeline.condition.GreaterEqualCondition;
+import de.natrox.pipeline.condition.GreaterThanCondition;
+import de.natrox.pipeline.condition.LesserEqualCondition;
+import de.natrox.pipeline.condition.LesserThanCondition;
+import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.document.FieldPath;
+import de.natrox.pipeline.util.Numbers;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * An in-memory index of the values of one document field, kept sorted so it answers equality and range conditions.
+ * <p>
+ * Values are ordered like the conditions compare them, numbers of any type by their numeric value and other values
+ * by their natural order. Values that are not {@link Comparable} are not indexed, so the index never answers a
+ * condition on them. The ids it returns are candidates, the condition still has to be applied to the documents.
+ */
+final class FieldIndex {
+
+    private final String field;
+    private final FieldPath fieldPath;
+    private final NavigableMap<Object, Set<UUID>> entries;
+    private final Map<UUID, Object> values;
+
+    FieldIndex(@NotNull String field) {
+        this.field = field;
+        this.fieldPath = FieldPath.of(field);
+        this.entries = new ConcurrentSkipListMap<>(FieldIndex::compare);
+        this.values = new ConcurrentHashMap<>();
+    }
+
+    void put(@NotNull UUID uniqueId, @NotNull DocumentData document) {
+        this.remove(uniqueId);
+
+        Object value = document.get(this.fieldPath);
+        if (!isIndexable(value))
+            return;
+
+        this.values.put(uniqueId, value);
+        this.entries.computeIfAbsent(value, key -> new ConcurrentSkipListSet<>()).add(uniqueId);
+    }
+
+    void remove(@NotNull UUID uniqueId) {
+        Object value = this.values.remove(uniqueId);
+        if (value == null)
+            return;
+
+        this.entries.computeIfPresent(value, (key, uniqueIds) -> {
+            uniqueIds.remove(uniqueId);
+            return uniqueIds.isEmpty() ? null : uniqueIds;
+        });
+    }
+
+    void clear() {
+        this.entries.clear();
+        this.values.clear();
+    }
+
+    /**
+     * Returns the ids of the documents that may match the condition, or {@code null} if this index cannot answer it.
+     * The ids are ordered by the indexed value and then by id, so the same lookup always returns them in the same order.
+     */
+    @Nullable Set<UUID> lookup(@NotNull Condition condition) {
+        if (!(condition instanceof FieldCondition fieldCondition) || !fieldCondition.field().equals(this.field))
+            return null;
+
+        Object value = fieldCondition.value();
+        if (!isIndexable(value))
+            return null;
+
+        NavigableMap<Object, Set<UUID>> range;
+        if (condition instanceof EqualsCondition) {
+            range = this.entries.subMap(value, true, value, true);
+        } else if (condition instanceof GreaterThanCondition) {
+            range = this.entries.tailMap(value, false);
+        } else if (condition instanceof GreaterEqualCondition) {
+            range = this.entries.tailMap(value, true);
+        } else if (condition instanceof LesserThanCondition) {
+            range = this.entries.headMap(value, false);
+        } else if (condition instanceof LesserEqualCondition) {
+            range = this.entries.headMap(value, true);
+        } else {
+            return null;
+        }
+
+        Set<UUID> uniqueIds = new LinkedHashSet<>();
+        for (Map.Entry<Object, Set<UUID>> entry : range.entrySet()) {
+            // A range of numbers does not extend to the values of other types sorted before or after them
+            if (!category(entry.getKey()).equals(category(value)))
+                continue;
+            uniqueIds.addAll(entry.getValue());
+        }
+        return uniqueIds;
+    }
+
+    private static boolean isIndexable(Object value) {
+        return value instanceof Comparable<?>;
+    }
+
+    private static String category(Object value) {
+        return value instanceof Number ? "" : value.getClass().getName();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object first, Object second) {
+        int result = category(first).compareTo(category(second));
+        if (result != 0)
+            return result;
+        if (first instanceof Number firstNumber)
+            return Numbers.compare(firstNumber, (Number) second);
+        return ((Comparable) first).compareTo(second);
+    }
+}
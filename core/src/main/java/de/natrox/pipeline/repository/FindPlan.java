@@ -0,0 +1,431 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.common.container.Pair;
+import de.natrox.pipeline.condition.Condition;
+import de.natrox.pipeline.condition.FieldCondition;
+import de.natrox.pipeline.condition.RedirectCondition;
+import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.document.serialize.DocumentSerializer;
+import de.natrox.pipeline.find.FindOptions;
+import de.natrox.pipeline.part.store.StoreMap;
+import de.natrox.pipeline.sort.SortEntry;
+import de.natrox.pipeline.sort.SortOrder;
+import de.natrox.pipeline.stream.BoundedStream;
+import de.natrox.pipeline.stream.CloseableIterator;
+import de.natrox.pipeline.stream.ConditionalStream;
+import de.natrox.pipeline.stream.PipeStream;
+import de.natrox.pipeline.stream.SortedDocumentStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Splits {@link FindOptions} into the part that the store evaluates natively and the residual part that is
+ * evaluated in memory on the deserialized documents.
+ * <p>
+ * Documents are stored serialized, so a store has no fields it could filter or sort by, but it can page through its
+ * entries. Skip and limit are pushed down to {@link StoreMap#scan(long, long)} whenever no condition or sort has to
+ * see the documents first, everything else stays in memory. If a secondary index narrowed the condition down to a
+ * set of candidates, only those are read instead of scanning the store.
+ * <p>
+ * A parallel find deserializes and filters the scanned entries in batches on a {@link ForkJoinPool} of its own. Sorting,
+ * skip and limit are applied on the merged batches as in a sequential find.
+ * <p>
+ * With a projection only the projected fields and the fields the condition and sort order need are deserialized, the
+ * latter are dropped again from the found documents.
+ */
+final class FindPlan {
+
+    private final static int CANDIDATE_PAGE_SIZE = 500;
+    private final static int PARALLEL_BATCH_SIZE = 4096;
+    private final static int PARALLEL_TASK_SIZE = 256;
+
+    private final Condition condition;
+    private final List<Pair<String, SortOrder>> sortOrder;
+    private final long skip;
+    private final long limit;
+    private final Set<UUID> candidates;
+    private final boolean parallel;
+    private final Set<String> projection;
+    private final Set<String> readFields;
+    private final boolean pushPaging;
+
+    /**
+     * @param candidates the ids of the only documents that may match the condition as found by a secondary index, or
+     *                   {@code null} if the store has to be scanned
+     */
+    FindPlan(@NotNull FindOptions findOptions, @Nullable Set<UUID> candidates) {
+        SortEntry sortBy = findOptions.sortBy();
+
+        this.condition = findOptions.condition();
+        this.sortOrder = sortBy == null ? List.of() : sortBy.sortingOrders();
+        this.skip = findOptions.skip() == -1 ? 0 : findOptions.skip();
+        this.limit = findOptions.limit() == -1 ? Long.MAX_VALUE : findOptions.limit();
+        this.candidates = candidates;
+        this.parallel = findOptions.parallel();
+        this.projection = findOptions.projection();
+        this.readFields = this.collectReadFields();
+        // An unpaged find reads the plain scan, which needs no ordering by the store
+        this.pushPaging = this.condition == null && this.sortOrder.isEmpty() && (this.skip != 0 || this.limit != Long.MAX_VALUE);
+    }
+
+    FindPlan(@NotNull FindOptions findOptions) {
+        this(findOptions, null);
+    }
+
+    @NotNull PipeStream<Pair<UUID, DocumentData>> stream(@NotNull StoreMap storeMap, @NotNull DocumentSerializer documentSerializer) {
+        // Every iteration scans the store again and deserializes the documents one at a time
+        if (this.pushPaging)
+            return this.project(() -> new ScanIterator(storeMap.scan(this.skip, this.limit), this.readFields, documentSerializer));
+
+        PipeStream<Pair<UUID, DocumentData>> stream = this.matches(storeMap, documentSerializer, this.readFields);
+        if (!this.sortOrder.isEmpty()) {
+            // Only the documents up to skip plus limit are read from the sorted stream
+            stream = new SortedDocumentStream(this.sortOrder, this.window(), stream);
+        }
+        if (this.skip != 0 || this.limit != Long.MAX_VALUE) {
+            stream = new BoundedStream<>(this.skip, this.limit, stream);
+        }
+        return this.project(stream);
+    }
+
+    /**
+     * Counts the documents the find would return. Without a condition the size of the store is enough, otherwise the
+     * matches are counted with only the fields of the condition deserialized, until skip plus limit are reached.
+     */
+    long count(@NotNull StoreMap storeMap, @NotNull DocumentSerializer documentSerializer) {
+        long matches = 0;
+        if (this.condition == null) {
+            matches = storeMap.size();
+        } else {
+            Set<String> fields = new HashSet<>();
+            Iterator<Pair<UUID, DocumentData>> iterator = this.matches(storeMap, documentSerializer, collectFields(this.condition, fields) ? fields : null).iterator();
+            try {
+                long window = this.window();
+                while (matches < window && iterator.hasNext()) {
+                    iterator.next();
+                    matches++;
+                }
+            } finally {
+                CloseableIterator.close(iterator);
+            }
+        }
+        return Math.max(0, Math.min(matches - this.skip, this.limit));
+    }
+
+    // The deserialized documents that match the condition, in scan order
+    private PipeStream<Pair<UUID, DocumentData>> matches(StoreMap storeMap, DocumentSerializer documentSerializer, @Nullable Set<String> fields) {
+        Supplier<CloseableIterator<Pair<UUID, byte[]>>> scan = this.candidates != null
+            ? () -> new CandidateIterator(storeMap, List.copyOf(this.candidates))
+            : storeMap::scan;
+        PipeStream<Pair<UUID, DocumentData>> stream;
+        if (this.parallel) {
+            // The condition is applied by the parallel tasks
+            stream = () -> new ParallelScanIterator(scan.get(), this.condition, fields, documentSerializer);
+        } else {
+            stream = () -> new ScanIterator(scan.get(), fields, documentSerializer);
+            if (this.condition != null) {
+                stream = new ConditionalStream(this.condition, stream);
+            }
+        }
+        return stream;
+    }
+
+    private long window() {
+        return this.limit > Long.MAX_VALUE - this.skip ? Long.MAX_VALUE : this.skip + this.limit;
+    }
+
+    /**
+     * The fields that have to be deserialized, which are the projected fields plus the fields the condition and sort
+     * order need, or {@code null} if all fields have to be read.
+     */
+    private @Nullable Set<String> collectReadFields() {
+        if (this.projection == null)
+            return null;
+
+        Set<String> fields = new HashSet<>(this.projection);
+        for (Pair<String, SortOrder> order : this.sortOrder) {
+            fields.add(topLevelField(order.first()));
+        }
+        if (this.condition != null && !collectFields(this.condition, fields))
+            return null;
+        return fields;
+    }
+
+    private static boolean collectFields(Condition condition, Set<String> fields) {
+        if (condition instanceof FieldCondition fieldCondition) {
+            fields.add(topLevelField(fieldCondition.field()));
+            return true;
+        }
+        if (condition instanceof RedirectCondition redirectCondition) {
+            for (Condition part : redirectCondition.conditions()) {
+                if (!collectFields(part, fields))
+                    return false;
+            }
+            return true;
+        }
+        // The fields of any other condition are unknown
+        return false;
+    }
+
+    private static String topLevelField(String field) {
+        int separator = field.indexOf('.');
+        return separator == -1 ? field : field.substring(0, separator);
+    }
+
+    // Fields that were only read for the condition or sort order are dropped from the found documents
+    private PipeStream<Pair<UUID, DocumentData>> project(PipeStream<Pair<UUID, DocumentData>> stream) {
+        if (this.projection == null || this.projection.equals(this.readFields))
+            return stream;
+        return () -> new ProjectionIterator(stream.iterator(), this.projection);
+    }
+
+    /**
+     * Reads the candidates of an index lookup page by page with one batch read per page, in the order of the
+     * candidates. A {@link PipelineMap} is read through {@link PipelineMap#queryAll(Collection)}, so that the find
+     * neither fills the caches nor counts as loads.
+     */
+    private final static class CandidateIterator implements CloseableIterator<Pair<UUID, byte[]>> {
+
+        private final StoreMap storeMap;
+        private final List<UUID> candidates;
+        private Iterator<Pair<UUID, byte[]>> page = Collections.emptyIterator();
+        private int position;
+
+        CandidateIterator(StoreMap storeMap, List<UUID> candidates) {
+            this.storeMap = storeMap;
+            this.candidates = candidates;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!this.page.hasNext() && this.position < this.candidates.size()) {
+                int end = Math.min(this.position + CANDIDATE_PAGE_SIZE, this.candidates.size());
+                List<UUID> uniqueIds = this.candidates.subList(this.position, end);
+                Map<UUID, byte[]> entries = this.storeMap instanceof PipelineMap pipelineMap
+                    ? pipelineMap.queryAll(uniqueIds)
+                    : this.storeMap.getAll(uniqueIds);
+                List<Pair<UUID, byte[]>> page = new ArrayList<>(entries.size());
+                for (UUID uniqueId : uniqueIds) {
+                    byte[] data = entries.get(uniqueId);
+                    if (data != null)
+                        page.add(Pair.of(uniqueId, data));
+                }
+                this.page = page.iterator();
+                this.position = end;
+            }
+            return this.page.hasNext();
+        }
+
+        @Override
+        public Pair<UUID, byte[]> next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            return this.page.next();
+        }
+
+        @Override
+        public void close() {
+            this.position = this.candidates.size();
+            this.page = Collections.emptyIterator();
+        }
+    }
+
+    /**
+     * The pool of the parallel finds, created with the first one. It is kept apart from the common pool, so that
+     * blocking tasks of the application cannot stall the finds and the finds cannot starve the application.
+     */
+    private final static class FindPool {
+
+        private final static ForkJoinPool POOL = createPool();
+
+        private static ForkJoinPool createPool() {
+            AtomicInteger threadCount = new AtomicInteger();
+            return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("pipeline-find-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+    }
+
+    /**
+     * Reads the scan in batches and deserializes and filters every batch on the {@link FindPool}. The
+     * results of a batch are merged in scan order, and the next batch is only read once the previous one is consumed.
+     */
+    private final static class ParallelScanIterator implements CloseableIterator<Pair<UUID, DocumentData>> {
+
+        private final CloseableIterator<Pair<UUID, byte[]>> scan;
+        private final Condition condition;
+        private final Set<String> fields;
+        private final DocumentSerializer documentSerializer;
+        private Iterator<Pair<UUID, DocumentData>> batch = Collections.emptyIterator();
+
+        ParallelScanIterator(CloseableIterator<Pair<UUID, byte[]>> scan, Condition condition, Set<String> fields, DocumentSerializer documentSerializer) {
+            this.scan = scan;
+            this.condition = condition;
+            this.fields = fields;
+            this.documentSerializer = documentSerializer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!this.batch.hasNext() && this.scan.hasNext()) {
+                List<Pair<UUID, byte[]>> entries = new ArrayList<>(PARALLEL_BATCH_SIZE);
+                while (entries.size() < PARALLEL_BATCH_SIZE && this.scan.hasNext()) {
+                    entries.add(this.scan.next());
+                }
+                this.batch = FindPool.POOL.invoke(new BatchTask(entries, 0, entries.size())).iterator();
+            }
+            return this.batch.hasNext();
+        }
+
+        @Override
+        public Pair<UUID, DocumentData> next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            return this.batch.next();
+        }
+
+        @Override
+        public void close() {
+            this.batch = Collections.emptyIterator();
+            this.scan.close();
+        }
+
+        @SuppressWarnings("serial")
+        private final class BatchTask extends RecursiveTask<List<Pair<UUID, DocumentData>>> {
+
+            private final List<Pair<UUID, byte[]>> entries;
+            private final int from;
+            private final int to;
+
+            BatchTask(List<Pair<UUID, byte[]>> entries, int from, int to) {
+                this.entries = entries;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected List<Pair<UUID, DocumentData>> compute() {
+                if (this.to - this.from > PARALLEL_TASK_SIZE) {
+                    int middle = (this.from + this.to) >>> 1;
+                    BatchTask left = new BatchTask(this.entries, this.from, middle);
+                    left.fork();
+                    List<Pair<UUID, DocumentData>> right = new BatchTask(this.entries, middle, this.to).compute();
+                    List<Pair<UUID, DocumentData>> result = left.join();
+                    result.addAll(right);
+                    return result;
+                }
+
+                List<Pair<UUID, DocumentData>> result = new ArrayList<>(this.to - this.from);
+                for (int i = this.from; i < this.to; i++) {
+                    Pair<UUID, byte[]> entry = this.entries.get(i);
+                    Pair<UUID, DocumentData> pair = Pair.of(entry.first(), ParallelScanIterator.this.documentSerializer.read(entry.second(), ParallelScanIterator.this.fields));
+                    if (ParallelScanIterator.this.condition == null || ParallelScanIterator.this.condition.apply(pair)) {
+                        result.add(pair);
+                    }
+                }
+                return result;
+            }
+        }
+    }
+
+    private final static class ScanIterator implements CloseableIterator<Pair<UUID, DocumentData>> {
+
+        private final CloseableIterator<Pair<UUID, byte[]>> scan;
+        private final Set<String> fields;
+        private final DocumentSerializer documentSerializer;
+
+        ScanIterator(CloseableIterator<Pair<UUID, byte[]>> scan, Set<String> fields, DocumentSerializer documentSerializer) {
+            this.scan = scan;
+            this.fields = fields;
+            this.documentSerializer = documentSerializer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.scan.hasNext();
+        }
+
+        @Override
+        public Pair<UUID, DocumentData> next() {
+            Pair<UUID, byte[]> entry = this.scan.next();
+            return Pair.of(entry.first(), this.documentSerializer.read(entry.second(), this.fields));
+        }
+
+        @Override
+        public void close() {
+            this.scan.close();
+        }
+    }
+
+    private final static class ProjectionIterator implements CloseableIterator<Pair<UUID, DocumentData>> {
+
+        private final Iterator<Pair<UUID, DocumentData>> iterator;
+        private final Set<String> projection;
+
+        ProjectionIterator(Iterator<Pair<UUID, DocumentData>> iterator, Set<String> projection) {
+            this.iterator = iterator;
+            this.projection = projection;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.iterator.hasNext();
+        }
+
+        @Override
+        public Pair<UUID, DocumentData> next() {
+            Pair<UUID, DocumentData> pair = this.iterator.next();
+            DocumentData document = pair.second();
+            // The top-level entries, since fields() leaves out lists and empty embedded documents
+            Set<String> dropped = new HashSet<>();
+            for (Pair<String, Object> entry : document) {
+                if (!this.projection.contains(entry.first()))
+                    dropped.add(entry.first());
+            }
+            for (String field : dropped) {
+                document.remove(field);
+            }
+            return pair;
+        }
+
+        @Override
+        public void close() {
+            CloseableIterator.close(this.iterator);
+        }
+    }
+}
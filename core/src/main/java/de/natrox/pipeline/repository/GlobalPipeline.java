@@ -17,6 +17,7 @@
 package de.natrox.pipeline.repository;
 
 import de.natrox.common.validate.Check;
+import de.natrox.pipeline.concurrent.SynchronizerConfig;
 import de.natrox.pipeline.part.provider.GlobalCacheProvider;
 import de.natrox.pipeline.part.provider.GlobalStorageProvider;
 import de.natrox.pipeline.part.provider.LocalCacheProvider;
@@ -27,14 +28,15 @@
 
 final class GlobalPipeline extends AbstractPipeline {
 
-    private GlobalPipeline(PartBundle partBundle) {
-        super(partBundle);
+    private GlobalPipeline(PartBundle partBundle, SynchronizerConfig synchronizerConfig) {
+        super(partBundle, synchronizerConfig);
     }
 
     final static class Builder extends AbstractPipeline.Builder<GlobalBuilder> implements Pipeline.GlobalBuilder {
 
         private final GlobalStorageProvider storageProvider;
         private UpdaterProvider updaterProvider;
+        private boolean exclusiveStorage;
 
         Builder(GlobalStorageProvider storageProvider) {
             this.storageProvider = storageProvider;
@@ -49,21 +51,34 @@ final static class Builder extends AbstractPipeline.Builder<GlobalBuilder> imple
             return this;
         }
 
+        @Override
+        public @NotNull Pipeline.GlobalBuilder exclusiveStorage() {
+            this.exclusiveStorage = true;
+            return this;
+        }
+
         @Override
         public Pipeline build() {
-            PartBundle partBundle = new PartBundle(this.storageProvider, this.globalCacheProvider, this.localCacheProvider, this.updaterProvider);
+            PartBundle partBundle = new PartBundle(this.storageProvider, this.globalCacheProvider, this.localCacheProvider, this.updaterProvider, this.exclusiveStorage);
 
-            return new GlobalPipeline(partBundle);
+            return new GlobalPipeline(partBundle, this.synchronizerConfig);
         }
     }
 
     final static class PartBundle extends AbstractPipeline.PartBundle<GlobalStorageProvider> {
 
         private final UpdaterProvider updaterProvider;
+        private final boolean exclusiveStorage;
 
-        PartBundle(GlobalStorageProvider storageProvider, GlobalCacheProvider globalCacheProvider, LocalCacheProvider localCacheProvider, UpdaterProvider updaterProvider) {
+        PartBundle(GlobalStorageProvider storageProvider, GlobalCacheProvider globalCacheProvider, LocalCacheProvider localCacheProvider, UpdaterProvider updaterProvider, boolean exclusiveStorage) {
             super(storageProvider, globalCacheProvider, localCacheProvider);
             this.updaterProvider = updaterProvider;
+            this.exclusiveStorage = exclusiveStorage;
+        }
+
+        @Override
+        public boolean sharesStorage() {
+            return !this.exclusiveStorage;
         }
 
         @Override
@@ -17,6 +17,7 @@
 package de.natrox.pipeline.repository;
 
 import de.natrox.common.validate.Check;
+import de.natrox.pipeline.concurrent.SynchronizerConfig;
 import de.natrox.pipeline.part.provider.GlobalCacheProvider;
 import de.natrox.pipeline.part.provider.LocalCacheProvider;
 import de.natrox.pipeline.part.provider.LocalStorageProvider;
@@ -25,8 +26,8 @@
 
 final class LocalPipeline extends AbstractPipeline {
 
-    private LocalPipeline(AbstractPipeline.@NotNull PartBundle<?> partBundle) {
-        super(partBundle);
+    private LocalPipeline(AbstractPipeline.@NotNull PartBundle<?> partBundle, SynchronizerConfig synchronizerConfig) {
+        super(partBundle, synchronizerConfig);
     }
 
     final static class Builder extends AbstractPipeline.Builder<LocalBuilder> implements Pipeline.LocalBuilder {
@@ -46,7 +47,7 @@ final static class Builder extends AbstractPipeline.Builder<LocalBuilder> implem
 
         @Override
         public Pipeline build() {
-            return new LocalPipeline(new PartBundle(this.storageProvider, this.globalCacheProvider, this.localCacheProvider));
+            return new LocalPipeline(new PartBundle(this.storageProvider, this.globalCacheProvider, this.localCacheProvider), this.synchronizerConfig);
         }
     }
 
@@ -65,6 +66,11 @@ public PipelineStore createStore(@NotNull AbstractPipeline pipeline) {
             return new PipelineStore(pipeline, storage, globalCache, localCache, null);
         }
 
+        @Override
+        public boolean sharesStorage() {
+            return false;
+        }
+
         @Override
         public void close() {
             this.storageProvider.close();
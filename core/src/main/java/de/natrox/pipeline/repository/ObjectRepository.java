@@ -25,6 +25,8 @@
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -37,6 +39,17 @@
         return this.load(uniqueId, null);
     }
 
+    /**
+     * Loads several objects at once, see {@link DocumentRepository#getAll(Collection)}.
+     *
+     * @return the objects that exist, by their id
+     */
+    @NotNull Map<UUID, T> loadAll(@NotNull Collection<UUID> uniqueIds, @Nullable InstanceCreator<T> instanceCreator);
+
+    default @NotNull Map<UUID, T> loadAll(@NotNull Collection<UUID> uniqueIds) {
+        return this.loadAll(uniqueIds, null);
+    }
+
     @NotNull T loadOrCreate(@NotNull UUID uniqueId, @Nullable InstanceCreator<T> instanceCreator);
 
     default @NotNull T loadOrCreate(@NotNull UUID uniqueId) {
@@ -60,6 +73,11 @@
 
     void save(@NotNull T objectData, QueryStrategy @NotNull ... strategies);
 
+    /**
+     * Saves several objects at once, see {@link DocumentRepository#insertAll(Map, QueryStrategy...)}.
+     */
+    void saveAll(@NotNull Collection<T> objects, QueryStrategy @NotNull ... strategies);
+
     @NotNull Class<T> type();
 
     @NotNull DocumentRepository documentRepository();
@@ -68,6 +86,12 @@
 
         @NotNull Builder<T> instanceCreator(@NotNull InstanceCreator<T> instanceCreator);
 
+        /**
+         * Stores the objects of this repository in the compact schema format of their type, which leaves out the field
+         * names. Repositories of the same type read both formats, regardless of this option.
+         */
+        @NotNull Builder<T> useSchema();
+
     }
 
 }
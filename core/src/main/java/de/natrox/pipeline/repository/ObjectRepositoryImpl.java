@@ -17,10 +17,12 @@
 package de.natrox.pipeline.repository;
 
 import de.natrox.common.validate.Check;
-import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.document.serialize.DocumentSchema;
+import de.natrox.pipeline.document.serialize.DocumentSerializer;
 import de.natrox.pipeline.find.FindOptions;
 import de.natrox.pipeline.object.InstanceCreator;
 import de.natrox.pipeline.object.ObjectData;
+import de.natrox.pipeline.object.annotation.AnnotationResolver;
 import de.natrox.pipeline.object.mapping.ObjectMapper;
 import de.natrox.pipeline.part.config.StorageConfig;
 import de.natrox.pipeline.stream.Cursor;
@@ -28,7 +30,11 @@
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -40,6 +46,9 @@
     private final String mapName;
     private final ObjectMapper<T> objectMapper;
     private final ObjectCache<T> objectCache;
+    private final DocumentSerializer documentSerializer;
+    private final DocumentSchema schema;
+    private final boolean useSchema;
 
     ObjectRepositoryImpl(AbstractPipeline pipeline, Class<T> type, DocumentRepositoryImpl documentRepository, RepositoryOptions.ObjectOptions<T> options) {
         this.type = type;
@@ -47,6 +56,11 @@
         this.mapName = documentRepository.name();
         this.objectMapper = ObjectMapper.create(type);
         this.objectCache = new ObjectCache<>(pipeline, this, this.objectMapper, options);
+        this.documentSerializer = pipeline.documentMapper();
+        this.schema = this.objectMapper.schema();
+        this.useSchema = options.useSchema();
+        // Always known, so objects written in the schema format by other pipelines can be read and found here too
+        this.documentSerializer.registerSchema(this.schema);
     }
 
     @Override
@@ -54,10 +68,37 @@
         Check.notNull(uniqueId, "uniqueId");
         // Instantiate T as fast as possible so that the Updater can still apply updates while loading a record
         T data = this.objectCache.getOrCreate(uniqueId, instanceCreator);
-        return this.documentRepository.get(uniqueId).map(document -> {
-            this.objectMapper.load(data, document);
-            return data;
-        });
+        byte[] bytes = this.documentRepository.getBytes(uniqueId);
+        if (bytes == null)
+            return Optional.empty();
+
+        this.load(data, bytes);
+        return Optional.of(data);
+    }
+
+    @Override
+    public @NotNull Map<UUID, T> loadAll(@NotNull Collection<UUID> uniqueIds, @Nullable InstanceCreator<T> instanceCreator) {
+        Check.notNull(uniqueIds, "uniqueIds");
+        Map<UUID, T> objects = new HashMap<>(uniqueIds.size());
+        for (UUID uniqueId : uniqueIds) {
+            objects.put(uniqueId, this.objectCache.getOrCreate(uniqueId, instanceCreator));
+        }
+
+        Map<UUID, byte[]> entries = this.documentRepository.getAllBytes(uniqueIds);
+        objects.keySet().retainAll(entries.keySet());
+        for (Map.Entry<UUID, T> entry : objects.entrySet()) {
+            this.load(entry.getValue(), entries.get(entry.getKey()));
+        }
+        return objects;
+    }
+
+    private void load(T data, byte[] bytes) {
+        Object[] values = this.documentSerializer.read(this.schema, bytes);
+        if (values != null) {
+            this.objectMapper.load(data, values);
+        } else {
+            this.objectMapper.load(data, this.documentSerializer.read(bytes));
+        }
     }
 
     @Override
@@ -70,8 +111,7 @@ private T create(UUID uniqueId, @Nullable InstanceCreator<T> instanceCreator) {
         Check.notNull(uniqueId, "uniqueId");
         T data = this.objectCache.getOrCreate(uniqueId, instanceCreator);
         data.handleCreate();
-        DocumentData documentData = this.objectMapper.save(data);
-        this.documentRepository.insert(uniqueId, documentData);
+        this.insert(uniqueId, data);
         return data;
     }
 
@@ -85,7 +125,27 @@ private T create(UUID uniqueId, @Nullable InstanceCreator<T> instanceCreator) {
     @Override
     public void save(@NotNull T objectData, QueryStrategy @NotNull ... strategies) {
         Check.notNull(objectData, "objectData");
-        this.documentRepository.insert(objectData.uniqueId(), this.objectMapper.save(objectData), strategies);
+        this.insert(objectData.uniqueId(), objectData, strategies);
+    }
+
+    @Override
+    public void saveAll(@NotNull Collection<T> objects, QueryStrategy @NotNull ... strategies) {
+        Check.notNull(objects, "objects");
+        Map<UUID, byte[]> entries = new HashMap<>(objects.size());
+        for (T objectData : objects) {
+            entries.put(objectData.uniqueId(), this.write(objectData));
+        }
+        this.documentRepository.insertAllBytes(entries, strategies);
+    }
+
+    private void insert(UUID uniqueId, T objectData, QueryStrategy... strategies) {
+        this.documentRepository.insertBytes(uniqueId, this.write(objectData), strategies);
+    }
+
+    private byte[] write(T objectData) {
+        if (this.useSchema)
+            return this.documentSerializer.write(this.schema, this.objectMapper.values(objectData));
+        return this.documentSerializer.write(this.objectMapper.save(objectData));
     }
 
     @Override
@@ -160,11 +220,22 @@ public long size() {
         return this.documentRepository.size();
     }
 
+    @Override
+    public long count(@NotNull FindOptions findOptions) {
+        return this.documentRepository.count(findOptions);
+    }
+
+    @Override
+    public @NotNull RepositoryMetrics metrics() {
+        return this.documentRepository.metrics();
+    }
+
     final static class BuilderImpl<T extends ObjectData> extends AbstractRepositoryBuilder<ObjectRepository<T>, ObjectRepository.Builder<T>> implements ObjectRepository.Builder<T> {
 
         private final ObjectRepositoryFactory factory;
         private final Class<T> type;
         private InstanceCreator<T> instanceCreator;
+        private boolean useSchema;
 
         BuilderImpl(ObjectRepositoryFactory factory, Class<T> type, StorageConfig config) {
             super(config);
@@ -179,10 +250,19 @@ public long size() {
             return this;
         }
 
+        @Override
+        public @NotNull Builder<T> useSchema() {
+            this.useSchema = true;
+            return this;
+        }
+
         @Override
         public ObjectRepository<T> build() {
+            Set<String> indexes = new LinkedHashSet<>(this.indexes);
+            indexes.addAll(AnnotationResolver.indexes(this.type));
+
             return this.factory.createRepository(this.type, new RepositoryOptions.ObjectOptions<>(
-                this.storageConfig, this.useGlobalCache, this.globalCacheConfig, this.useLocalCache, this.localCacheConfig, this.instanceCreator
+                this.storageConfig, this.useGlobalCache, this.globalCacheConfig, this.useLocalCache, this.localCacheConfig, indexes, this.instanceCreator, this.useSchema
             ));
         }
     }
@@ -21,20 +21,22 @@
 import de.natrox.pipeline.object.InstanceCreator;
 import de.natrox.pipeline.object.ObjectData;
 import de.natrox.pipeline.object.mapping.ObjectMapper;
+import de.natrox.pipeline.stream.CloseableIterator;
 import de.natrox.pipeline.stream.Cursor;
+import de.natrox.pipeline.stream.OpenIterators;
 import de.natrox.pipeline.stream.PipeStream;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Iterator;
 import java.util.UUID;
 
-@SuppressWarnings("ClassCanBeRecord")
 public final class ObjectStream<T extends ObjectData> implements Cursor<T> {
 
     private final ObjectCache<T> objectCache;
     private final ObjectMapper<T> objectMapper;
     private final PipeStream<Pair<UUID, DocumentData>> pipeStream;
     private final InstanceCreator<T> instanceCreator;
+    private final OpenIterators openIterators = new OpenIterators();
 
     public ObjectStream(ObjectCache<T> objectCache, ObjectMapper<T> objectMapper, InstanceCreator<T> instanceCreator, PipeStream<Pair<UUID, DocumentData>> pipeStream) {
         this.objectCache = objectCache;
@@ -50,10 +52,15 @@ public long size() {
 
     @Override
     public @NotNull Iterator<T> iterator() {
-        return new ObjectCursorIterator(this.pipeStream.iterator());
+        return this.openIterators.track(new ObjectCursorIterator(this.pipeStream.iterator()));
     }
 
-    private class ObjectCursorIterator implements Iterator<T> {
+    @Override
+    public void close() {
+        this.openIterators.closeAll();
+    }
+
+    private class ObjectCursorIterator implements CloseableIterator<T> {
 
         private final Iterator<Pair<UUID, DocumentData>> documentIterator;
 
@@ -78,5 +85,10 @@ public T next() {
         public void remove() {
             throw new RuntimeException("Remove on a cursor is not supported");
         }
+
+        @Override
+        public void close() {
+            CloseableIterator.close(this.documentIterator);
+        }
     }
 }
@@ -19,6 +19,7 @@
 import de.natrox.common.builder.IBuilder;
 import de.natrox.common.function.SingleTypeFunction;
 import de.natrox.common.validate.Check;
+import de.natrox.pipeline.concurrent.SynchronizerConfig;
 import de.natrox.pipeline.document.serialize.DocumentSerializer;
 import de.natrox.pipeline.object.ObjectData;
 import de.natrox.pipeline.part.config.StorageConfig;
@@ -95,6 +96,11 @@ public sealed interface Pipeline permits AbstractPipeline {
 
     @NotNull DocumentSerializer documentMapper();
 
+    /**
+     * @return a snapshot of the counters of all open repositories, including the statistics of their local caches
+     */
+    @NotNull PipelineMetrics metrics();
+
     boolean isClosed();
 
     void close();
@@ -105,12 +111,36 @@ public sealed interface Pipeline permits AbstractPipeline {
 
         @NotNull R globalCache(@NotNull GlobalCacheProvider provider);
 
+        /**
+         * Configures the executor that all repositories of the pipeline share to synchronize documents between the
+         * storage and the cache parts in the background.
+         */
+        @NotNull R synchronizer(@NotNull SynchronizerConfig config);
+
+        default @NotNull R synchronizer(@NotNull SynchronizerConfig.Builder builder) {
+            Check.notNull(builder, "builder");
+            return this.synchronizer(builder.build());
+        }
+
+        default @NotNull R synchronizer(@NotNull SingleTypeFunction<SynchronizerConfig.Builder> function) {
+            Check.notNull(function, "function");
+            return this.synchronizer(function.apply(SynchronizerConfig.builder()));
+        }
+
     }
 
     interface GlobalBuilder extends Builder<GlobalBuilder> {
 
         @NotNull Pipeline.GlobalBuilder localCache(@NotNull LocalCacheProvider localCacheProvider, @NotNull UpdaterProvider updaterProvider);
 
+        /**
+         * Declares that no other pipeline or process writes to the storage, like an embedded H2 or SQLite database
+         * that only this pipeline opens. Repositories can then use {@link Repository.Builder#index(String...)
+         * indexes}, which are refused on a global storage otherwise, since writes of other nodes would be missing
+         * from them.
+         */
+        @NotNull Pipeline.GlobalBuilder exclusiveStorage();
+
     }
 
     interface LocalBuilder extends Builder<LocalBuilder> {
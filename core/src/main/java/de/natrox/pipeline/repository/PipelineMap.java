@@ -16,21 +16,37 @@
 
 package de.natrox.pipeline.repository;
 
+import de.natrox.common.container.Pair;
+import de.natrox.common.runnable.CatchingRunnable;
 import de.natrox.common.validate.Check;
 import de.natrox.eventbus.EventBus;
 import de.natrox.eventbus.EventListener;
+import de.natrox.pipeline.part.store.CacheStats;
 import de.natrox.pipeline.part.store.StoreMap;
 import de.natrox.pipeline.part.updater.Updater;
 import de.natrox.pipeline.part.updater.event.ByteDocumentUpdateEvent;
 import de.natrox.pipeline.part.updater.event.DocumentRemoveEvent;
 import de.natrox.pipeline.part.updater.event.MapClearEvent;
+import de.natrox.pipeline.stream.CloseableIterator;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
 
 final class PipelineMap implements StoreMap {
 
@@ -39,16 +55,29 @@ final class PipelineMap implements StoreMap {
     private final @Nullable StoreMap globalCacheMap;
     private final @Nullable StoreMap localCacheMap;
     private final @Nullable Updater updater;
+    private final @Nullable WriteBehindQueue writeBehindQueue;
+    private final @Nullable RefreshTracker globalRefresh;
+    private final @Nullable RefreshTracker localRefresh;
 
+    private final ExecutorService synchronizerExecutor;
     private final DataSynchronizer dataSynchronizer;
+    private final Map<UUID, CompletableFuture<byte[]>> loads = new ConcurrentHashMap<>();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final WriteVersions writeVersions = new WriteVersions();
 
-    PipelineMap(String mapName, StoreMap storageMap, @Nullable StoreMap globalCacheMap, @Nullable StoreMap localCacheMap, @Nullable Updater updater) {
+    PipelineMap(String mapName, StoreMap storageMap, @Nullable StoreMap globalCacheMap, @Nullable StoreMap localCacheMap, @Nullable Updater updater, ExecutorService synchronizerExecutor, @Nullable WriteBehindQueue writeBehindQueue, @Nullable RefreshTracker globalRefresh, @Nullable RefreshTracker localRefresh) {
         this.mapName = mapName;
         this.storageMap = storageMap;
         this.globalCacheMap = globalCacheMap;
         this.localCacheMap = localCacheMap;
         this.updater = updater;
-        this.dataSynchronizer = new DataSynchronizer(storageMap, globalCacheMap, localCacheMap);
+        this.writeBehindQueue = writeBehindQueue;
+        this.globalRefresh = globalRefresh;
+        this.localRefresh = localRefresh;
+        this.synchronizerExecutor = synchronizerExecutor;
+        this.dataSynchronizer = new DataSynchronizer(storageMap, globalCacheMap, localCacheMap, synchronizerExecutor);
         this.registerListeners();
     }
 
@@ -59,33 +88,231 @@ final class PipelineMap implements StoreMap {
         if (this.localCacheMap != null) {
             byte[] documentData = this.fromPart(uniqueId, this.localCacheMap);
             if (documentData != null) {
+                this.refresh(uniqueId, this.localCacheMap, this.localRefresh);
                 return documentData;
             }
         }
 
+        // Concurrent misses of the same document share one load from the remote parts and one cache fill
+        CompletableFuture<byte[]> load = new CompletableFuture<>();
+        CompletableFuture<byte[]> inFlight = this.loads.putIfAbsent(uniqueId, load);
+        if (inFlight != null) {
+            this.coalescedLoads.increment();
+            return this.await(inFlight);
+        }
+
+        long start = System.nanoTime();
+        try {
+            byte[] documentData = this.load(uniqueId);
+            load.complete(documentData);
+            return documentData;
+        } catch (Throwable throwable) {
+            load.completeExceptionally(throwable);
+            throw throwable;
+        } finally {
+            if (this.localCacheMap != null)
+                this.recordLoad(start);
+            this.loads.remove(uniqueId, load);
+        }
+    }
+
+    private byte[] load(UUID uniqueId) {
         if (this.globalCacheMap != null) {
             byte[] documentData = this.fromPart(uniqueId, this.globalCacheMap, DataSynchronizer.DataSourceType.LOCAL_CACHE);
             if (documentData != null) {
+                this.refresh(uniqueId, this.globalCacheMap, this.globalRefresh);
                 return documentData;
             }
         }
 
-        return this.fromPart(uniqueId, this.storageMap, DataSynchronizer.DataSourceType.LOCAL_CACHE, DataSynchronizer.DataSourceType.GLOBAL_CACHE);
+        if (this.writeBehindQueue != null) {
+            byte[] documentData = this.writeBehindQueue.pending(uniqueId);
+            if (documentData != null)
+                return WriteBehindQueue.isRemoval(documentData) ? null : documentData;
+        }
+
+        byte[] documentData = this.fromPart(uniqueId, this.storageMap, DataSynchronizer.DataSourceType.LOCAL_CACHE, DataSynchronizer.DataSourceType.GLOBAL_CACHE);
+        if (documentData == null)
+            this.forget(uniqueId);
+        return documentData;
+    }
+
+    // Reloads a document that was read from a cache part after its refresh time in the background, the reader keeps
+    // the cached document
+    private void refresh(UUID uniqueId, StoreMap cacheMap, @Nullable RefreshTracker refreshTracker) {
+        if (refreshTracker == null)
+            return;
+        Long claim = refreshTracker.claim(uniqueId);
+        if (claim == null)
+            return;
+
+        boolean fromGlobalCache = cacheMap == this.localCacheMap && this.globalCacheMap != null;
+        this.synchronizerExecutor.execute(new CatchingRunnable(() -> {
+            byte[] documentData = fromGlobalCache ? this.globalCacheMap.get(uniqueId) : null;
+            if (documentData == null)
+                documentData = this.fromStorage(uniqueId);
+
+            if (!refreshTracker.isClaimed(uniqueId, claim))
+                return;
+            if (documentData != null) {
+                cacheMap.put(uniqueId, documentData);
+            } else {
+                cacheMap.remove(uniqueId, Set.of(QueryStrategy.ALL));
+            }
+            // A write in between may have been overwritten, the next read loads the document again instead
+            if (!refreshTracker.complete(uniqueId, claim, documentData != null))
+                cacheMap.remove(uniqueId, Set.of(QueryStrategy.ALL));
+        }));
+    }
+
+    private byte[] fromStorage(UUID uniqueId) {
+        if (this.writeBehindQueue != null) {
+            byte[] documentData = this.writeBehindQueue.pending(uniqueId);
+            if (documentData != null)
+                return WriteBehindQueue.isRemoval(documentData) ? null : documentData;
+        }
+        return this.storageMap.get(uniqueId);
+    }
+
+    private byte[] await(CompletableFuture<byte[]> load) {
+        try {
+            return load.join();
+        } catch (CompletionException exception) {
+            // Rethrow what the loading thread failed with
+            if (exception.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+            if (exception.getCause() instanceof Error error)
+                throw error;
+            throw exception;
+        }
+    }
+
+    @Override
+    public @NotNull Map<UUID, byte[]> getAll(@NotNull Collection<UUID> uniqueIds) {
+        Check.notNull(uniqueIds, "uniqueIds");
+        Map<UUID, byte[]> entries = new HashMap<>();
+        Set<UUID> missing = new HashSet<>(uniqueIds);
+
+        if (this.localCacheMap != null) {
+            for (UUID uniqueId : this.allFromPart(missing, entries, this.localCacheMap))
+                this.refresh(uniqueId, this.localCacheMap, this.localRefresh);
+        }
+
+        if (missing.isEmpty())
+            return entries;
+
+        // The documents that missed the local cache count as one load, like a bulk load of the local cache
+        long start = System.nanoTime();
+        if (this.globalCacheMap != null) {
+            for (UUID uniqueId : this.allFromPart(missing, entries, this.globalCacheMap, DataSynchronizer.DataSourceType.LOCAL_CACHE))
+                this.refresh(uniqueId, this.globalCacheMap, this.globalRefresh);
+        }
+
+        if (this.writeBehindQueue != null && !missing.isEmpty()) {
+            for (Iterator<UUID> iterator = missing.iterator(); iterator.hasNext(); ) {
+                UUID uniqueId = iterator.next();
+                byte[] documentData = this.writeBehindQueue.pending(uniqueId);
+                if (documentData == null)
+                    continue;
+                if (!WriteBehindQueue.isRemoval(documentData))
+                    entries.put(uniqueId, documentData);
+                iterator.remove();
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            this.allFromPart(missing, entries, this.storageMap, DataSynchronizer.DataSourceType.LOCAL_CACHE, DataSynchronizer.DataSourceType.GLOBAL_CACHE);
+        }
+        if (this.localCacheMap != null)
+            this.recordLoad(start);
+        return entries;
+    }
+
+    /**
+     * Reads the documents a query needs from the storage, with the queued writes merged in like a scan sees them.
+     * Unlike {@link #getAll(Collection)} the read neither fills the caches nor counts as a load, so a find does not
+     * displace the documents the caches hold for lookups.
+     */
+    @NotNull Map<UUID, byte[]> queryAll(@NotNull Collection<UUID> uniqueIds) {
+        Check.notNull(uniqueIds, "uniqueIds");
+        Map<UUID, byte[]> entries = new HashMap<>();
+        Set<UUID> missing = new HashSet<>(uniqueIds);
+
+        if (this.writeBehindQueue != null) {
+            for (Iterator<UUID> iterator = missing.iterator(); iterator.hasNext(); ) {
+                UUID uniqueId = iterator.next();
+                byte[] documentData = this.writeBehindQueue.pending(uniqueId);
+                if (documentData == null)
+                    continue;
+                if (!WriteBehindQueue.isRemoval(documentData))
+                    entries.put(uniqueId, documentData);
+                iterator.remove();
+            }
+        }
+
+        if (!missing.isEmpty())
+            entries.putAll(this.storageMap.getAll(missing));
+        return entries;
+    }
+
+    // Only loads after a local cache miss are counted, without a local cache every read is a load
+    private void recordLoad(long start) {
+        this.loadCount.increment();
+        this.totalLoadNanos.add(System.nanoTime() - start);
+    }
+
+    private Set<UUID> allFromPart(Set<UUID> missing, Map<UUID, byte[]> entries, StoreMap storeMap, DataSynchronizer.DataSourceType... destinations) {
+        Map<UUID, Long> versions = new HashMap<>();
+        if (destinations.length > 0) {
+            for (UUID uniqueId : missing)
+                versions.put(uniqueId, this.writeVersions.version(uniqueId));
+        }
+        Map<UUID, byte[]> found = storeMap.getAll(missing);
+        for (Map.Entry<UUID, byte[]> entry : found.entrySet()) {
+            if (destinations.length > 0) {
+                this.written(entry.getKey(), destinations);
+                this.dataSynchronizer.synchronizeTo(entry.getKey(), entry.getValue(), this.writeVersions, versions.get(entry.getKey()), destinations);
+            }
+            entries.put(entry.getKey(), entry.getValue());
+        }
+        missing.removeAll(found.keySet());
+        return found.keySet();
     }
 
     private byte[] fromPart(UUID uniqueId, StoreMap storeMap, DataSynchronizer.DataSourceType... destinations) {
+        // Taken before the read, so a write that the fill would undo is noticed
+        long version = this.writeVersions.version(uniqueId);
         byte[] data = storeMap.get(uniqueId);
-        if (data != null)
-            this.dataSynchronizer.synchronizeTo(uniqueId, data, destinations);
+        if (data != null && destinations.length > 0) {
+            this.written(uniqueId, destinations);
+            this.dataSynchronizer.synchronizeTo(uniqueId, data, this.writeVersions, version, destinations);
+        }
         return data;
     }
 
+    private void written(UUID uniqueId, DataSynchronizer.DataSourceType... destinations) {
+        for (DataSynchronizer.DataSourceType destination : destinations) {
+            RefreshTracker refreshTracker = destination == DataSynchronizer.DataSourceType.LOCAL_CACHE ? this.localRefresh : this.globalRefresh;
+            if (refreshTracker != null)
+                refreshTracker.written(uniqueId);
+        }
+    }
+
+    private void forget(UUID uniqueId) {
+        if (this.localRefresh != null)
+            this.localRefresh.removed(uniqueId);
+        if (this.globalRefresh != null)
+            this.globalRefresh.removed(uniqueId);
+    }
+
     @Override
     public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
         Check.notNull(data, "data");
+        this.writeVersions.written(uniqueId);
         if (strategies.contains(QueryStrategy.LOCAL_CACHE) || strategies.contains(QueryStrategy.ALL)) {
             if (this.localCacheMap != null) {
+                this.written(uniqueId, DataSynchronizer.DataSourceType.LOCAL_CACHE);
                 this.localCacheMap.put(uniqueId, data);
             }
             if (this.updater != null) {
@@ -95,11 +322,52 @@ public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<Quer
             }
         }
         if ((strategies.contains(QueryStrategy.GLOBAL_CACHE) || strategies.contains(QueryStrategy.ALL)) &&  this.globalCacheMap != null) {
+            this.written(uniqueId, DataSynchronizer.DataSourceType.GLOBAL_CACHE);
             this.globalCacheMap.put(uniqueId, data);
         }
 
         if(strategies.contains(QueryStrategy.GLOBAL_STORAGE) || strategies.contains(QueryStrategy.ALL)) {
-            this.storageMap.put(uniqueId, data);
+            if (this.writeBehindQueue != null) {
+                this.writeBehindQueue.put(uniqueId, data);
+            } else {
+                this.storageMap.put(uniqueId, data);
+            }
+        }
+    }
+
+    @Override
+    public void putAll(@NotNull Map<UUID, byte[]> entries, @NotNull Set<QueryStrategy> strategies) {
+        Check.notNull(entries, "entries");
+        if (entries.isEmpty())
+            return;
+        entries.keySet().forEach(this.writeVersions::written);
+
+        if (strategies.contains(QueryStrategy.LOCAL_CACHE) || strategies.contains(QueryStrategy.ALL)) {
+            if (this.localCacheMap != null) {
+                if (this.localRefresh != null)
+                    entries.keySet().forEach(this.localRefresh::written);
+                this.localCacheMap.putAll(entries);
+            }
+            if (this.updater != null) {
+                for (Map.Entry<UUID, byte[]> entry : entries.entrySet()) {
+                    this.updater.pushUpdate(this.mapName, entry.getKey(), entry.getValue(), () -> {
+
+                    });
+                }
+            }
+        }
+        if ((strategies.contains(QueryStrategy.GLOBAL_CACHE) || strategies.contains(QueryStrategy.ALL)) && this.globalCacheMap != null) {
+            if (this.globalRefresh != null)
+                entries.keySet().forEach(this.globalRefresh::written);
+            this.globalCacheMap.putAll(entries);
+        }
+
+        if (strategies.contains(QueryStrategy.GLOBAL_STORAGE) || strategies.contains(QueryStrategy.ALL)) {
+            if (this.writeBehindQueue != null) {
+                this.writeBehindQueue.putAll(entries);
+            } else {
+                this.storageMap.putAll(entries);
+            }
         }
     }
 
@@ -119,6 +387,11 @@ public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> stra
         }
 
         if (strategies.contains(QueryStrategy.GLOBAL_STORAGE) || strategies.contains(QueryStrategy.ALL)) {
+            if (this.writeBehindQueue != null) {
+                byte[] documentData = this.writeBehindQueue.pending(uniqueId);
+                if (documentData != null)
+                    return !WriteBehindQueue.isRemoval(documentData);
+            }
             return this.storageMap.contains(uniqueId, strategies);
         }
 
@@ -128,24 +401,68 @@ public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> stra
 
     @Override
     public @NotNull Collection<UUID> keys() {
-        return this.storageMap.keys();
+        Map<UUID, byte[]> pendingWrites = this.pendingWrites();
+        if (pendingWrites.isEmpty())
+            return this.storageMap.keys();
+
+        Set<UUID> keys = new LinkedHashSet<>(this.storageMap.keys());
+        for (Map.Entry<UUID, byte[]> entry : pendingWrites.entrySet()) {
+            if (WriteBehindQueue.isRemoval(entry.getValue())) {
+                keys.remove(entry.getKey());
+            } else {
+                keys.add(entry.getKey());
+            }
+        }
+        return keys;
     }
 
     @Override
     public @NotNull Collection<byte[]> values() {
-        return this.storageMap.values();
+        if (this.pendingWrites().isEmpty())
+            return this.storageMap.values();
+        return this.entries().values();
     }
 
     @Override
     public @NotNull Map<UUID, byte[]> entries() {
-        return this.storageMap.entries();
+        Map<UUID, byte[]> pendingWrites = this.pendingWrites();
+        if (pendingWrites.isEmpty())
+            return this.storageMap.entries();
+
+        Map<UUID, byte[]> entries = new LinkedHashMap<>(this.storageMap.entries());
+        for (Map.Entry<UUID, byte[]> entry : pendingWrites.entrySet()) {
+            if (WriteBehindQueue.isRemoval(entry.getValue())) {
+                entries.remove(entry.getKey());
+            } else {
+                entries.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public @NotNull CloseableIterator<Pair<UUID, byte[]>> scan() {
+        Map<UUID, byte[]> pendingWrites = this.pendingWrites();
+        if (pendingWrites.isEmpty())
+            return this.storageMap.scan();
+        return new PendingScanIterator(this.storageMap.scan(), pendingWrites);
+    }
+
+    @Override
+    public @NotNull CloseableIterator<Pair<UUID, byte[]>> scan(long skip, long limit) {
+        // The pages come from the storage in key order, queued writes could only be merged by reading all of them
+        this.flushWrites();
+        return this.storageMap.scan(skip, limit);
     }
 
     @Override
     public void remove(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
+        this.writeVersions.written(uniqueId);
         if (strategies.contains(QueryStrategy.LOCAL_CACHE) || strategies.contains(QueryStrategy.ALL)) {
             if (this.localCacheMap != null) {
+                if (this.localRefresh != null)
+                    this.localRefresh.removed(uniqueId);
                 this.localCacheMap.remove(uniqueId, strategies);
             }
             if (this.updater != null) {
@@ -156,16 +473,29 @@ public void remove(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategie
         }
 
         if ((strategies.contains(QueryStrategy.GLOBAL_CACHE) || strategies.contains(QueryStrategy.ALL)) && this.globalCacheMap != null) {
+            if (this.globalRefresh != null)
+                this.globalRefresh.removed(uniqueId);
             this.globalCacheMap.remove(uniqueId, strategies);
         }
 
         if (strategies.contains(QueryStrategy.GLOBAL_STORAGE) || strategies.contains(QueryStrategy.ALL)) {
-            this.storageMap.remove(uniqueId, strategies);
+            if (this.writeBehindQueue != null) {
+                this.writeBehindQueue.remove(uniqueId);
+            } else {
+                this.storageMap.remove(uniqueId, strategies);
+            }
         }
     }
 
     @Override
     public void clear() {
+        this.writeVersions.clear();
+        if (this.localRefresh != null) {
+            this.localRefresh.clear();
+        }
+        if (this.globalRefresh != null) {
+            this.globalRefresh.clear();
+        }
         if (this.localCacheMap != null) {
             this.localCacheMap.clear();
         }
@@ -177,18 +507,50 @@ public void clear() {
         if (this.globalCacheMap != null) {
             this.globalCacheMap.clear();
         }
+        if (this.writeBehindQueue != null) {
+            this.writeBehindQueue.clear();
+        }
         this.storageMap.clear();
     }
 
     @Override
     public long size() {
+        // Whether a queued write adds or replaces a document is only known to the storage
+        this.flushWrites();
         return this.storageMap.size();
     }
 
+    @NotNull RepositoryMetrics metrics() {
+        CacheStats localCache = this.localCacheMap != null ? this.localCacheMap.stats() : CacheStats.empty();
+        return new RepositoryMetricsImpl(this.coalescedLoads.sum(), this.loadCount.sum(), this.totalLoadNanos.sum(), localCache);
+    }
+
     public void close() {
+        this.close(true);
+    }
+
+    /**
+     * @param flushWrites whether queued storage writes are flushed, they are dropped otherwise
+     */
+    void close(boolean flushWrites) {
+        if (this.writeBehindQueue != null) {
+            this.writeBehindQueue.close(flushWrites);
+        }
         this.dataSynchronizer.close();
     }
 
+    // Reads that go through the whole storage have to see the queued writes as well
+    private Map<UUID, byte[]> pendingWrites() {
+        return this.writeBehindQueue != null ? this.writeBehindQueue.snapshot() : Map.of();
+    }
+
+    // Writes the queued writes on the reading thread, for the reads that cannot merge them
+    private void flushWrites() {
+        if (this.writeBehindQueue != null) {
+            this.writeBehindQueue.flush();
+        }
+    }
+
     private void registerListeners() {
         if (this.localCacheMap == null || this.updater == null)
             return;
@@ -199,7 +561,11 @@ private void registerListeners() {
             EventListener
                 .builder(ByteDocumentUpdateEvent.class)
                 .condition(event -> event.repositoryName().equals(this.mapName))
-                .handler(event -> this.localCacheMap.put(event.documentId(), event.documentData()))
+                .handler(event -> {
+                    this.writeVersions.written(event.documentId());
+                    this.written(event.documentId(), DataSynchronizer.DataSourceType.LOCAL_CACHE);
+                    this.localCacheMap.put(event.documentId(), event.documentData());
+                })
                 .build()
         );
 
@@ -207,7 +573,12 @@ private void registerListeners() {
             EventListener
                 .builder(DocumentRemoveEvent.class)
                 .condition(event -> event.repositoryName().equals(this.mapName))
-                .handler(event -> this.localCacheMap.remove(event.documentId(), Set.of(QueryStrategy.LOCAL_CACHE)))
+                .handler(event -> {
+                    this.writeVersions.written(event.documentId());
+                    if (this.localRefresh != null)
+                        this.localRefresh.removed(event.documentId());
+                    this.localCacheMap.remove(event.documentId(), Set.of(QueryStrategy.LOCAL_CACHE));
+                })
                 .build()
         );
 
@@ -215,8 +586,65 @@ private void registerListeners() {
             EventListener
                 .builder(MapClearEvent.class)
                 .condition(event -> event.repositoryName().equals(this.mapName))
-                .handler(event -> this.localCacheMap.clear())
+                .handler(event -> {
+                    this.writeVersions.clear();
+                    if (this.localRefresh != null)
+                        this.localRefresh.clear();
+                    this.localCacheMap.clear();
+                })
                 .build()
         );
     }
+
+    /**
+     * Scans the storage with the queued writes merged in. Documents with a queued write are skipped in the storage and
+     * returned from the queue once the storage is exhausted, queued removals are left out.
+     */
+    private final static class PendingScanIterator implements CloseableIterator<Pair<UUID, byte[]>> {
+
+        private final CloseableIterator<Pair<UUID, byte[]>> scan;
+        private final Map<UUID, byte[]> pendingWrites;
+        private Iterator<Map.Entry<UUID, byte[]>> pendingIterator;
+        private Pair<UUID, byte[]> next;
+
+        PendingScanIterator(CloseableIterator<Pair<UUID, byte[]>> scan, Map<UUID, byte[]> pendingWrites) {
+            this.scan = scan;
+            this.pendingWrites = pendingWrites;
+            this.pendingIterator = pendingWrites.entrySet().iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.next == null) {
+                if (this.scan.hasNext()) {
+                    Pair<UUID, byte[]> entry = this.scan.next();
+                    if (!this.pendingWrites.containsKey(entry.first()))
+                        this.next = entry;
+                } else if (this.pendingIterator.hasNext()) {
+                    Map.Entry<UUID, byte[]> entry = this.pendingIterator.next();
+                    if (!WriteBehindQueue.isRemoval(entry.getValue()))
+                        this.next = Pair.of(entry.getKey(), entry.getValue());
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Pair<UUID, byte[]> next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            Pair<UUID, byte[]> next = this.next;
+            this.next = null;
+            return next;
+        }
+
+        @Override
+        public void close() {
+            this.next = null;
+            this.pendingIterator = Collections.emptyIterator();
+            this.scan.close();
+        }
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * A snapshot of the counters of all open repositories of a {@link Pipeline}, taken when {@link Pipeline#metrics()}
+ * is called.
+ */
+@ApiStatus.Experimental
+public sealed interface PipelineMetrics permits PipelineMetricsImpl {
+
+    /**
+     * @return the metrics of each open repository by its name
+     */
+    @NotNull Map<String, RepositoryMetrics> repositories();
+
+    /**
+     * @return the metrics of all open repositories summed up
+     */
+    @NotNull RepositoryMetrics total();
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+final class PipelineMetricsImpl implements PipelineMetrics {
+
+    private final Map<String, RepositoryMetrics> repositories;
+    private final RepositoryMetrics total;
+
+    PipelineMetricsImpl(Map<String, RepositoryMetrics> repositories) {
+        this.repositories = Map.copyOf(repositories);
+        RepositoryMetricsImpl total = RepositoryMetricsImpl.EMPTY;
+        for (RepositoryMetrics metrics : repositories.values()) {
+            total = total.plus(metrics);
+        }
+        this.total = total;
+    }
+
+    @Override
+    public @NotNull Map<String, RepositoryMetrics> repositories() {
+        return this.repositories;
+    }
+
+    @Override
+    public @NotNull RepositoryMetrics total() {
+        return this.total;
+    }
+}
@@ -20,6 +20,8 @@
 import de.natrox.eventbus.EventBus;
 import de.natrox.eventbus.EventListener;
 import de.natrox.pipeline.document.serialize.DocumentSerializer;
+import de.natrox.pipeline.part.config.CacheConfig;
+import de.natrox.pipeline.part.config.StorageConfig;
 import de.natrox.pipeline.part.store.Store;
 import de.natrox.pipeline.part.store.StoreMap;
 import de.natrox.pipeline.part.updater.Updater;
@@ -37,13 +39,15 @@ final class PipelineStore implements Store {
     private final @Nullable Store localCache;
     private final @Nullable Updater updater;
 
+    private final AbstractPipeline pipeline;
     private final DocumentSerializer documentSerializer;
 
-    public PipelineStore(@NotNull Pipeline pipeline, @NotNull Store storage, @Nullable Store globalCache, @Nullable Store localCache, @Nullable Updater updater) {
+    public PipelineStore(@NotNull AbstractPipeline pipeline, @NotNull Store storage, @Nullable Store globalCache, @Nullable Store localCache, @Nullable Updater updater) {
         this.storage = storage;
         this.globalCache = globalCache;
         this.localCache = localCache;
         this.updater = updater;
+        this.pipeline = pipeline;
         this.documentSerializer = pipeline.documentMapper();
         this.registerListeners();
     }
@@ -65,7 +69,22 @@ public PipelineStore(@NotNull Pipeline pipeline, @NotNull Store storage, @Nullab
 
         StoreMap storageMap = this.storage.openMap(mapName, repositoryOptions);
 
-        return new PipelineMap(mapName, storageMap, globalCacheMap, localCacheMap, updater);
+        WriteBehindQueue writeBehindQueue = null;
+        StorageConfig storageConfig = repositoryOptions.storageConfig();
+        if (storageConfig.writeBehindNanos() > 0) {
+            writeBehindQueue = new WriteBehindQueue(storageMap, storageConfig.writeBehindNanos(), storageConfig.writeBehindBatchSize(), this.pipeline.writeBehindScheduler());
+        }
+
+        RefreshTracker globalRefresh = globalCacheMap != null ? this.refreshTracker(repositoryOptions.globalCacheConfig()) : null;
+        RefreshTracker localRefresh = localCacheMap != null ? this.refreshTracker(repositoryOptions.localCacheConfig()) : null;
+
+        return new PipelineMap(mapName, storageMap, globalCacheMap, localCacheMap, updater, this.pipeline.synchronizerExecutor(), writeBehindQueue, globalRefresh, localRefresh);
+    }
+
+    private @Nullable RefreshTracker refreshTracker(CacheConfig cacheConfig) {
+        if (cacheConfig.refreshAfterWriteNanos() <= 0)
+            return null;
+        return new RefreshTracker(cacheConfig.refreshAfterWriteNanos(), cacheConfig.expireAfterWriteNanos());
     }
 
     @Override
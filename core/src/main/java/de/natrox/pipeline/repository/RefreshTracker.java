@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers when the documents of a cache part were written, so {@link PipelineMap} can reload documents that are
+ * read after the configured refresh time in the background, before the cache part expires them.
+ * <p>
+ * Documents have to be marked as {@link #written(UUID) written} before they are written to the cache part, a refresh
+ * that started before that is then discarded instead of overwriting the newer document.
+ * <p>
+ * The cache part does not report evictions, so the tracked documents are bounded on their own: entries older than the
+ * expiry are pruned, and above {@link #MAX_TRACKED} entries everything older than the refresh time is dropped as well.
+ * A dropped document only has its next refresh delayed, its age is measured again from the next read.
+ */
+final class RefreshTracker {
+
+    private final static int PRUNE_INTERVAL = 1024;
+    private final static int MAX_TRACKED = 1 << 16;
+
+    private final long refreshAfterWriteNanos;
+    private final long expireAfterWriteNanos;
+    private final Map<UUID, Long> writeTimes = new ConcurrentHashMap<>();
+    private final AtomicInteger insertsSincePrune = new AtomicInteger();
+
+    RefreshTracker(long refreshAfterWriteNanos, long expireAfterWriteNanos) {
+        this.refreshAfterWriteNanos = refreshAfterWriteNanos;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+    }
+
+    void written(@NotNull UUID uniqueId) {
+        this.writeTimes.put(uniqueId, System.nanoTime());
+        this.inserted();
+    }
+
+    void removed(@NotNull UUID uniqueId) {
+        this.writeTimes.remove(uniqueId);
+    }
+
+    void clear() {
+        this.writeTimes.clear();
+    }
+
+    /**
+     * Claims the refresh of a document that was just read from the cache part, so concurrent readers do not refresh
+     * it as well.
+     *
+     * @return the claim to pass to {@link #isClaimed(UUID, Long)} and {@link #complete(UUID, Long, boolean)}, or
+     * {@code null} if the document does not need a refresh yet or another reader claimed it
+     */
+    @Nullable Long claim(@NotNull UUID uniqueId) {
+        long now = System.nanoTime();
+        Long writeTime = this.writeTimes.get(uniqueId);
+        if (writeTime == null) {
+            // Written before this pipeline knew about it, its age is measured from now on
+            if (this.writeTimes.putIfAbsent(uniqueId, now) == null)
+                this.inserted();
+            return null;
+        }
+        if (now - writeTime < this.refreshAfterWriteNanos)
+            return null;
+        return this.writeTimes.replace(uniqueId, writeTime, now) ? now : null;
+    }
+
+    /**
+     * @return whether the document was neither written nor removed since the refresh was claimed, so the reloaded
+     * document may be written to the cache part
+     */
+    boolean isClaimed(@NotNull UUID uniqueId, @NotNull Long claim) {
+        return claim.equals(this.writeTimes.get(uniqueId));
+    }
+
+    /**
+     * Completes a refresh after the reloaded document was written to the cache part.
+     *
+     * @param exists whether the document still exists, it is forgotten otherwise
+     * @return {@code false} if the document was written or removed while the refresh wrote to the cache part, which
+     * may then hold the older document
+     */
+    boolean complete(@NotNull UUID uniqueId, @NotNull Long claim, boolean exists) {
+        return exists
+            ? this.writeTimes.replace(uniqueId, claim, System.nanoTime())
+            : this.writeTimes.remove(uniqueId, claim);
+    }
+
+    int size() {
+        return this.writeTimes.size();
+    }
+
+    private void inserted() {
+        if (this.insertsSincePrune.incrementAndGet() >= PRUNE_INTERVAL) {
+            this.prune();
+        }
+    }
+
+    // Documents written longer than the expiry ago have left the cache part, unless they were written again
+    private void prune() {
+        this.insertsSincePrune.set(0);
+        long now = System.nanoTime();
+        if (this.expireAfterWriteNanos > 0)
+            this.writeTimes.values().removeIf(writeTime -> now - writeTime >= this.expireAfterWriteNanos);
+        if (this.writeTimes.size() > MAX_TRACKED)
+            this.writeTimes.values().removeIf(writeTime -> now - writeTime >= this.refreshAfterWriteNanos);
+        if (this.writeTimes.size() > MAX_TRACKED)
+            // Pending refreshes lose their claim and are discarded
+            this.writeTimes.clear();
+    }
+}
@@ -58,6 +58,26 @@ default Cursor<T> find() {
 
     long size();
 
+    /**
+     * Counts the documents a find with the given options would return. Without a condition only the size of the
+     * storage is queried, otherwise the documents are scanned, but only the fields of the condition are deserialized.
+     * The sort order and projection of the options are ignored.
+     * <p>
+     * How expensive the size query is depends on the storage, SQL storages run a single {@code COUNT}, while a Redis
+     * storage walks its whole keyspace with {@code SCAN}.
+     */
+    long count(@NotNull FindOptions findOptions);
+
+    default long count(@NotNull SingleTypeFunction<FindOptions.@NotNull Builder> function) {
+        Check.notNull(function, "function");
+        return this.count(function.apply(FindOptions.builder()).build());
+    }
+
+    /**
+     * @return a snapshot of the counters of this repository
+     */
+    @NotNull RepositoryMetrics metrics();
+
     sealed interface Builder<T extends Repository<?>, R extends Builder<T, R>> extends IBuilder<T> permits AbstractRepositoryBuilder, DocumentRepository.Builder, ObjectRepository.Builder {
 
         @NotNull R useGlobalCache(@NotNull GlobalCacheConfig config);
@@ -92,5 +112,19 @@ default Cursor<T> find() {
             return this.useLocalCache(LocalCacheConfig.defaults());
         }
 
+        /**
+         * Adds a secondary index on each of the given fields. A find whose condition compares an indexed field for
+         * equality or with a range reads only the documents the index points to instead of scanning the storage.
+         * <p>
+         * The indexes are held in memory, built with one scan of the storage before the first find that uses them and
+         * kept up to date by the writes of this repository. Writes of other pipelines sharing the storage would not be
+         * seen, so building a repository with indexes fails with an {@link IllegalStateException} if the pipeline uses
+         * a global storage, unless it was declared {@link Pipeline.GlobalBuilder#exclusiveStorage() exclusive}.
+         *
+         * @param fields the names of the fields, nested fields are separated by dots
+         * @return this builder
+         */
+        @NotNull R index(@NotNull String... fields);
+
     }
 }
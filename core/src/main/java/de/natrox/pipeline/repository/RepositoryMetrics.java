@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.pipeline.part.store.CacheStats;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A snapshot of the counters of a {@link Repository}, taken when {@link Repository#metrics()} is called.
+ */
+@ApiStatus.Experimental
+public sealed interface RepositoryMetrics permits RepositoryMetricsImpl {
+
+    /**
+     * @return the number of lookups that missed the local cache while a lookup of the same document was already
+     * loading it, and therefore shared the result of that load instead of querying the remote parts themselves
+     */
+    long coalescedLoads();
+
+    /**
+     * @return the number of times documents that were not in the local cache were loaded from the remote parts
+     */
+    long loadCount();
+
+    /**
+     * @return the nanoseconds spent on the loads counted by {@link #loadCount()}
+     */
+    long totalLoadNanos();
+
+    /**
+     * @return the average nanoseconds a lookup that missed the local cache waited for its load
+     */
+    default double averageLoadPenaltyNanos() {
+        long loadCount = this.loadCount();
+        return loadCount == 0 ? 0.0 : (double) this.totalLoadNanos() / loadCount;
+    }
+
+    /**
+     * @return the statistics of the local cache of the repository, empty if it does not use one
+     */
+    @NotNull CacheStats localCache();
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.pipeline.part.store.CacheStats;
+import org.jetbrains.annotations.NotNull;
+
+@SuppressWarnings("ClassCanBeRecord")
+final class RepositoryMetricsImpl implements RepositoryMetrics {
+
+    final static RepositoryMetricsImpl EMPTY = new RepositoryMetricsImpl(0, 0, 0, CacheStats.empty());
+
+    private final long coalescedLoads;
+    private final long loadCount;
+    private final long totalLoadNanos;
+    private final CacheStats localCache;
+
+    RepositoryMetricsImpl(long coalescedLoads, long loadCount, long totalLoadNanos, CacheStats localCache) {
+        this.coalescedLoads = coalescedLoads;
+        this.loadCount = loadCount;
+        this.totalLoadNanos = totalLoadNanos;
+        this.localCache = localCache;
+    }
+
+    @Override
+    public long coalescedLoads() {
+        return this.coalescedLoads;
+    }
+
+    @Override
+    public long loadCount() {
+        return this.loadCount;
+    }
+
+    @Override
+    public long totalLoadNanos() {
+        return this.totalLoadNanos;
+    }
+
+    @Override
+    public @NotNull CacheStats localCache() {
+        return this.localCache;
+    }
+
+    RepositoryMetricsImpl plus(RepositoryMetrics other) {
+        return new RepositoryMetricsImpl(
+            this.coalescedLoads + other.coalescedLoads(),
+            this.loadCount + other.loadCount(),
+            this.totalLoadNanos + other.totalLoadNanos(),
+            this.localCache.plus(other.localCache())
+        );
+    }
+}
@@ -23,6 +23,8 @@
 import de.natrox.pipeline.part.config.StorageConfig;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Set;
+
 public sealed abstract class RepositoryOptions {
 
     private final StorageConfig storageConfig;
@@ -30,19 +32,22 @@ public sealed abstract class RepositoryOptions {
     private final GlobalCacheConfig globalCacheConfig;
     private final boolean useLocalCache;
     private final LocalCacheConfig localCacheConfig;
+    private final Set<String> indexes;
 
     RepositoryOptions(
         StorageConfig storageConfig,
         boolean useGlobalCache,
         GlobalCacheConfig globalCacheConfig,
         boolean useLocalCache,
-        LocalCacheConfig localCacheConfig
+        LocalCacheConfig localCacheConfig,
+        Set<String> indexes
     ) {
         this.storageConfig = storageConfig;
         this.useGlobalCache = useGlobalCache;
         this.globalCacheConfig = globalCacheConfig;
         this.useLocalCache = useLocalCache;
         this.localCacheConfig = localCacheConfig;
+        this.indexes = Set.copyOf(indexes);
     }
 
     public @NotNull StorageConfig storageConfig() {
@@ -65,6 +70,10 @@ public boolean useLocalCache() {
         return this.localCacheConfig;
     }
 
+    public @NotNull Set<String> indexes() {
+        return this.indexes;
+    }
+
     static non-sealed class DocumentOptions extends RepositoryOptions {
 
         DocumentOptions(
@@ -72,15 +81,17 @@ public boolean useLocalCache() {
             boolean useGlobalCache,
             GlobalCacheConfig globalCacheConfig,
             boolean useLocalCache,
-            LocalCacheConfig localCacheConfig
+            LocalCacheConfig localCacheConfig,
+            Set<String> indexes
         ) {
-            super(storageConfig, useGlobalCache, globalCacheConfig, useLocalCache, localCacheConfig);
+            super(storageConfig, useGlobalCache, globalCacheConfig, useLocalCache, localCacheConfig, indexes);
         }
     }
 
     static final class ObjectOptions<T extends ObjectData> extends DocumentOptions {
 
         private final InstanceCreator<T> instanceCreator;
+        private final boolean useSchema;
 
         ObjectOptions(
             StorageConfig storageConfig,
@@ -88,14 +99,21 @@ public boolean useLocalCache() {
             GlobalCacheConfig globalCacheConfig,
             boolean useLocalCache,
             LocalCacheConfig localCacheConfig,
-            InstanceCreator<T> instanceCreator
+            Set<String> indexes,
+            InstanceCreator<T> instanceCreator,
+            boolean useSchema
         ) {
-            super(storageConfig, useGlobalCache, globalCacheConfig, useLocalCache, localCacheConfig);
+            super(storageConfig, useGlobalCache, globalCacheConfig, useLocalCache, localCacheConfig, indexes);
             this.instanceCreator = instanceCreator;
+            this.useSchema = useSchema;
         }
 
         public InstanceCreator<T> instanceCreator() {
             return this.instanceCreator;
         }
+
+        public boolean useSchema() {
+            return this.useSchema;
+        }
     }
 }
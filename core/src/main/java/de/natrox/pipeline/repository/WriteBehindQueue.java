@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.common.runnable.CatchingRunnable;
+import de.natrox.pipeline.part.store.StoreMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues the storage writes of a map and writes them in batches, periodically, once enough writes are pending and
+ * when the map is closed. Repeated writes of the same document only keep the latest one.
+ * <p>
+ * Documents that are queued or currently being flushed are returned by {@link #pending(UUID)} and
+ * {@link #snapshot()}, so reads see them before they reach the storage.
+ */
+final class WriteBehindQueue {
+
+    // Marks a queued removal, compared by identity
+    private final static byte[] REMOVAL = new byte[0];
+
+    private final StoreMap storageMap;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+    private final ScheduledFuture<?> scheduledFlush;
+    private final Object flushLock = new Object();
+
+    private Map<UUID, byte[]> pending = new LinkedHashMap<>();
+    private Map<UUID, byte[]> flushing = Map.of();
+    private boolean flushRequested;
+
+    WriteBehindQueue(@NotNull StoreMap storageMap, long intervalNanos, int batchSize, @NotNull ScheduledExecutorService scheduler) {
+        this.storageMap = storageMap;
+        this.batchSize = batchSize;
+        this.scheduler = scheduler;
+        this.scheduledFlush = scheduler.scheduleWithFixedDelay(new CatchingRunnable(this::flush), intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    static boolean isRemoval(byte @Nullable [] data) {
+        return data == REMOVAL;
+    }
+
+    synchronized void put(@NotNull UUID uniqueId, byte @NotNull [] data) {
+        this.pending.put(uniqueId, data);
+        this.requestFlushIfFull();
+    }
+
+    synchronized void putAll(@NotNull Map<UUID, byte[]> entries) {
+        this.pending.putAll(entries);
+        this.requestFlushIfFull();
+    }
+
+    synchronized void remove(@NotNull UUID uniqueId) {
+        this.pending.put(uniqueId, REMOVAL);
+        this.requestFlushIfFull();
+    }
+
+    /**
+     * Drops all queued writes, the writes of a flush that is already running still reach the storage.
+     */
+    synchronized void clear() {
+        this.pending.clear();
+    }
+
+    /**
+     * @return the queued document, a removal as checked by {@link #isRemoval(byte[])} or {@code null} if no write of
+     * the document is pending
+     */
+    synchronized byte @Nullable [] pending(@NotNull UUID uniqueId) {
+        byte[] data = this.pending.get(uniqueId);
+        return data != null ? data : this.flushing.get(uniqueId);
+    }
+
+    /**
+     * @return the queued writes and the writes of a running flush, with removals as checked by
+     * {@link #isRemoval(byte[])}
+     */
+    synchronized @NotNull Map<UUID, byte[]> snapshot() {
+        if (this.pending.isEmpty() && this.flushing.isEmpty())
+            return Map.of();
+        Map<UUID, byte[]> snapshot = new LinkedHashMap<>(this.flushing);
+        snapshot.putAll(this.pending);
+        return snapshot;
+    }
+
+    /**
+     * Writes all queued writes to the storage. Writes that fail are queued again, unless the document was written
+     * again in the meantime.
+     */
+    void flush() {
+        // Only one flush at a time, so the writes of the same document reach the storage in order
+        synchronized (this.flushLock) {
+            Map<UUID, byte[]> batch;
+            synchronized (this) {
+                this.flushRequested = false;
+                if (this.pending.isEmpty())
+                    return;
+                batch = this.pending;
+                this.flushing = batch;
+                this.pending = new LinkedHashMap<>();
+            }
+
+            try {
+                Map<UUID, byte[]> puts = new HashMap<>(batch.size());
+                for (Map.Entry<UUID, byte[]> entry : batch.entrySet()) {
+                    if (isRemoval(entry.getValue())) {
+                        this.storageMap.remove(entry.getKey());
+                    } else {
+                        puts.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                this.storageMap.putAll(puts);
+            } catch (RuntimeException exception) {
+                synchronized (this) {
+                    Map<UUID, byte[]> requeued = new LinkedHashMap<>(batch);
+                    requeued.putAll(this.pending);
+                    this.pending = requeued;
+                }
+                throw exception;
+            } finally {
+                synchronized (this) {
+                    this.flushing = Map.of();
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the periodic flush and writes all queued writes to the storage, or drops them if the map was removed.
+     */
+    void close(boolean flush) {
+        this.scheduledFlush.cancel(false);
+        if (flush) {
+            this.flush();
+        } else {
+            this.clear();
+        }
+    }
+
+    private void requestFlushIfFull() {
+        if (this.flushRequested || this.pending.size() < this.batchSize)
+            return;
+        this.flushRequested = true;
+        this.scheduler.execute(new CatchingRunnable(this::flush));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the writes to the documents of a {@link PipelineMap}, so that a cache fill with a document that was read
+ * before a write can be discarded instead of overwriting the newer document or bringing back a removed one.
+ * <p>
+ * The version of a document has to be taken before it is read, and writes have to be marked as {@link #written(UUID)
+ * written} before they reach a cache part. The counters are striped, a write to one document also discards the fills
+ * of the other documents in its stripe, which only costs them a later cache miss.
+ */
+final class WriteVersions {
+
+    private final static int STRIPES = 1024;
+
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES);
+
+    long version(@NotNull UUID uniqueId) {
+        return this.versions.get(stripe(uniqueId));
+    }
+
+    void written(@NotNull UUID uniqueId) {
+        this.versions.incrementAndGet(stripe(uniqueId));
+    }
+
+    void clear() {
+        for (int i = 0; i < STRIPES; i++) {
+            this.versions.incrementAndGet(i);
+        }
+    }
+
+    /**
+     * @return whether the document was neither written nor removed since the given version was taken
+     */
+    boolean unchanged(@NotNull UUID uniqueId, long version) {
+        return this.versions.get(stripe(uniqueId)) == version;
+    }
+
+    private static int stripe(UUID uniqueId) {
+        int hash = uniqueId.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
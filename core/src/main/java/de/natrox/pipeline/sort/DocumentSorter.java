@@ -18,32 +18,47 @@
 
 import de.natrox.common.container.Pair;
 import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.document.FieldPath;
+import org.jetbrains.annotations.NotNull;
 
 import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
 
-@SuppressWarnings("ClassCanBeRecord")
 public final class DocumentSorter implements Comparator<Pair<UUID, DocumentData>> {
 
     private final List<Pair<String, SortOrder>> sortOrder;
+    private final FieldPath[] fieldPaths;
 
     public DocumentSorter(List<Pair<String, SortOrder>> sortOrder) {
         this.sortOrder = sortOrder;
+        this.fieldPaths = sortOrder == null
+            ? new FieldPath[0]
+            : sortOrder.stream().map(pair -> FieldPath.of(pair.first())).toArray(FieldPath[]::new);
     }
 
     @Override
-    @SuppressWarnings({"rawtypes", "unchecked"})
     public int compare(Pair<UUID, DocumentData> pair1, Pair<UUID, DocumentData> pair2) {
-        if (this.sortOrder == null || this.sortOrder.isEmpty())
-            return 0;
+        return this.compareKeys(this.keys(pair1.second()), this.keys(pair2.second()));
+    }
 
-        for (Pair<String, SortOrder> pair : this.sortOrder) {
-            DocumentData doc1 = pair1.second();
-            DocumentData doc2 = pair2.second();
+    /**
+     * Extracts the values of the sorted fields, so they can be compared with {@link #compareKeys(Object[], Object[])}
+     * without looking them up in the document again.
+     */
+    public Object @NotNull [] keys(@NotNull DocumentData documentData) {
+        Object[] keys = new Object[this.fieldPaths.length];
+        for (int i = 0; i < this.fieldPaths.length; i++) {
+            keys[i] = documentData.get(this.fieldPaths[i]);
+        }
+        return keys;
+    }
 
-            Object value1 = doc1.get(pair.first());
-            Object value2 = doc2.get(pair.first());
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public int compareKeys(Object @NotNull [] keys1, Object @NotNull [] keys2) {
+        for (int i = 0; i < this.fieldPaths.length; i++) {
+            Object value1 = keys1[i];
+            Object value2 = keys2[i];
 
             int result;
             if (value1 == null && value2 != null) {
@@ -51,7 +66,7 @@ public int compare(Pair<UUID, DocumentData> pair1, Pair<UUID, DocumentData> pair
             } else if (value1 != null && value2 == null) {
                 result = 1;
             } else if (value1 == null) {
-                result = -1;
+                result = 0;
             } else {
 
                 if (value1.getClass().isArray()
@@ -66,7 +81,7 @@ public int compare(Pair<UUID, DocumentData> pair1, Pair<UUID, DocumentData> pair
                 result = c1.compareTo(c2);
             }
 
-            if (pair.second() == SortOrder.Descending) {
+            if (this.sortOrder.get(i).second() == SortOrder.Descending) {
                 result *= -1;
             }
 
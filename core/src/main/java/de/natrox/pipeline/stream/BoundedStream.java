@@ -40,11 +40,11 @@ public BoundedStream(Long skip, Long limit, PipeStream<Pair<T, U>> pipeStream) {
     }
 
     @Override
-    public @NotNull Iterator<Pair<T, U>> iterator() {
+    public @NotNull CloseableIterator<Pair<T, U>> iterator() {
         return new BoundedIterator<>(this.pipeStream == null ? Collections.emptyIterator() : this.pipeStream.iterator(), this.skip, this.limit);
     }
 
-    private final static class BoundedIterator<T> implements Iterator<T> {
+    private final static class BoundedIterator<T> implements CloseableIterator<T> {
         private final Iterator<? extends T> iterator;
         private final long skip;
         private final long limit;
@@ -72,6 +72,8 @@ private void initialize() {
         @Override
         public boolean hasNext() {
             if (this.checkBounds()) {
+                // Nothing more is read, so the underlying iterator does not need to stay open
+                this.close();
                 return false;
             }
             return this.iterator.hasNext();
@@ -98,6 +100,11 @@ public void remove() {
             }
             this.iterator.remove();
         }
+
+        @Override
+        public void close() {
+            CloseableIterator.close(this.iterator);
+        }
     }
 
 }
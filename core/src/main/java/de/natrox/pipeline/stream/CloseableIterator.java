@@ -0,0 +1,91 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.stream;
+
+import de.natrox.common.validate.Check;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An iterator that holds resources of a store, like a database cursor or a connection, while it is open.
+ * <p>
+ * It closes itself once it is exhausted. Iterators that are abandoned early have to be closed explicitly, the
+ * streams of this package pass {@link #close()} on to the iterator they read from.
+ *
+ * @param <T> the type of the elements
+ */
+@ApiStatus.Experimental
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+
+    static <T> @NotNull CloseableIterator<T> of(@NotNull Iterator<T> iterator, @NotNull Runnable onClose) {
+        Check.notNull(iterator, "iterator");
+        Check.notNull(onClose, "onClose");
+        return new CloseableIterator<>() {
+
+            private boolean closed;
+
+            @Override
+            public boolean hasNext() {
+                if (this.closed)
+                    return false;
+                if (iterator.hasNext())
+                    return true;
+
+                this.close();
+                return false;
+            }
+
+            @Override
+            public T next() {
+                if (!this.hasNext())
+                    throw new NoSuchElementException();
+                return iterator.next();
+            }
+
+            @Override
+            public void close() {
+                if (this.closed)
+                    return;
+                this.closed = true;
+                onClose.run();
+            }
+        };
+    }
+
+    static <T> @NotNull CloseableIterator<T> of(@NotNull Iterator<T> iterator) {
+        return of(iterator, () -> {
+        });
+    }
+
+    /**
+     * Closes the given iterator if it holds resources and does nothing otherwise.
+     */
+    static void close(@NotNull Iterator<?> iterator) {
+        Check.notNull(iterator, "iterator");
+        if (iterator instanceof CloseableIterator<?> closeableIterator)
+            closeableIterator.close();
+    }
+
+    /**
+     * Releases the resources of this iterator. Calling it more than once has no effect.
+     */
+    @Override
+    void close();
+}
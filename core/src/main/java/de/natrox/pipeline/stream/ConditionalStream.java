@@ -46,7 +46,7 @@ public ConditionalStream(Condition condition, PipeStream<Pair<UUID, DocumentData
         return new ConditionIterator(iterator, this.condition);
     }
 
-    private final static class ConditionIterator implements Iterator<Pair<UUID, DocumentData>> {
+    private final static class ConditionIterator implements CloseableIterator<Pair<UUID, DocumentData>> {
         private final Iterator<Pair<UUID, DocumentData>> iterator;
         private final Condition condition;
         private Pair<UUID, DocumentData> nextPair;
@@ -79,6 +79,11 @@ public void remove() {
             this.iterator.remove();
         }
 
+        @Override
+        public void close() {
+            CloseableIterator.close(this.iterator);
+        }
+
         private boolean setNextId() {
             while (this.iterator.hasNext()) {
                 final Pair<UUID, DocumentData> pair = this.iterator.next();
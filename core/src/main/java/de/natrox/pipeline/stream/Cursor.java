@@ -18,6 +18,28 @@
 
 import org.jetbrains.annotations.ApiStatus;
 
+/**
+ * The result of a find. Every {@link #iterator()} reads the result from the store again, and holds resources of the
+ * store like a connection or a database cursor until it is exhausted.
+ * <p>
+ * The terminal operations like {@link #toList()} or {@link #first()} release them on their own. A cursor that is
+ * iterated directly and might be left early, e.g. by a {@code break} in a for-each loop, has to be closed, which
+ * closes every iterator of it that is still open:
+ * <pre>{@code
+ * try (Cursor<DocumentData> cursor = repository.find(options)) {
+ *     for (DocumentData document : cursor) {
+ *         ...
+ *     }
+ * }
+ * }</pre>
+ */
 @ApiStatus.Experimental
-public interface Cursor<T> extends PipeStream<T> {
+public interface Cursor<T> extends PipeStream<T>, AutoCloseable {
+
+    /**
+     * Closes the iterators of this cursor that are still open, iterators requested afterwards are empty.
+     */
+    @Override
+    void close();
+
 }
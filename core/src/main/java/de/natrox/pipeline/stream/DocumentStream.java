@@ -24,10 +24,10 @@
 import java.util.Iterator;
 import java.util.UUID;
 
-@SuppressWarnings("ClassCanBeRecord")
 public final class DocumentStream implements Cursor<DocumentData> {
 
     private final PipeStream<Pair<UUID, DocumentData>> pipeStream;
+    private final OpenIterators openIterators = new OpenIterators();
 
     public DocumentStream(PipeStream<Pair<UUID, DocumentData>> pipeStream) {
         this.pipeStream = pipeStream;
@@ -35,14 +35,19 @@ public DocumentStream(PipeStream<Pair<UUID, DocumentData>> pipeStream) {
 
     @Override
     public @NotNull Iterator<DocumentData> iterator() {
-        return new DocumentCursorIterator(this.pipeStream == null ? Collections.emptyIterator() : this.pipeStream.iterator());
+        return this.openIterators.track(new DocumentCursorIterator(this.pipeStream == null ? Collections.emptyIterator() : this.pipeStream.iterator()));
+    }
+
+    @Override
+    public void close() {
+        this.openIterators.closeAll();
     }
 
     public @NotNull PipeStream<Pair<UUID, DocumentData>> asPairStream() {
         return this.pipeStream;
     }
 
-    private final static class DocumentCursorIterator implements Iterator<DocumentData> {
+    private final static class DocumentCursorIterator implements CloseableIterator<DocumentData> {
 
         private final Iterator<Pair<UUID, DocumentData>> iterator;
 
@@ -65,6 +70,11 @@ public DocumentData next() {
         public void remove() {
             throw new RuntimeException("remove operation cannot be called here");
         }
+
+        @Override
+        public void close() {
+            CloseableIterator.close(this.iterator);
+        }
     }
 
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.stream;
+
+import de.natrox.common.validate.Check;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the iterators a {@link Cursor} handed out that are not exhausted yet, so closing the cursor can
+ * release the resources they hold.
+ */
+@ApiStatus.Internal
+public final class OpenIterators {
+
+    private final Set<TrackedIterator<?>> iterators = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * @return an iterator that is closed once it is exhausted, fails or {@link #closeAll()} is called, and that is
+     * empty if that already happened
+     */
+    public <T> @NotNull CloseableIterator<T> track(@NotNull Iterator<T> iterator) {
+        Check.notNull(iterator, "iterator");
+        if (this.closed) {
+            CloseableIterator.close(iterator);
+            return CloseableIterator.of(Collections.emptyIterator());
+        }
+
+        TrackedIterator<T> trackedIterator = new TrackedIterator<>(iterator);
+        this.iterators.add(trackedIterator);
+        // closeAll may have run before the iterator was added
+        if (this.closed)
+            trackedIterator.close();
+        return trackedIterator;
+    }
+
+    public void closeAll() {
+        this.closed = true;
+        for (TrackedIterator<?> iterator : this.iterators) {
+            iterator.close();
+        }
+    }
+
+    private final class TrackedIterator<T> implements CloseableIterator<T> {
+
+        private final Iterator<T> iterator;
+        private volatile boolean closed;
+
+        TrackedIterator(Iterator<T> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.closed)
+                return false;
+            try {
+                if (this.iterator.hasNext())
+                    return true;
+            } catch (RuntimeException exception) {
+                this.close();
+                throw exception;
+            }
+
+            this.close();
+            return false;
+        }
+
+        @Override
+        public T next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            try {
+                return this.iterator.next();
+            } catch (RuntimeException exception) {
+                this.close();
+                throw exception;
+            }
+        }
+
+        @Override
+        public void remove() {
+            this.iterator.remove();
+        }
+
+        @Override
+        public void close() {
+            if (this.closed)
+                return;
+            this.closed = true;
+            OpenIterators.this.iterators.remove(this);
+            CloseableIterator.close(this.iterator);
+        }
+    }
+}
@@ -63,6 +63,11 @@ default long size() {
     }
 
     default boolean isEmpty() {
-        return !iterator().hasNext();
+        Iterator<T> iterator = this.iterator();
+        try {
+            return !iterator.hasNext();
+        } finally {
+            CloseableIterator.close(iterator);
+        }
     }
 }
@@ -20,35 +20,101 @@
 import de.natrox.pipeline.document.DocumentData;
 import de.natrox.pipeline.sort.DocumentSorter;
 import de.natrox.pipeline.sort.SortOrder;
-import de.natrox.pipeline.util.Iterables;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.UUID;
 
+/**
+ * Sorts the documents of the upstream. The sort keys of every document are extracted once up front. If only the first
+ * {@code limit} documents are read afterwards, a bounded heap keeps just those instead of sorting all of them.
+ * Documents with equal keys keep the order of the upstream in both cases.
+ */
 @SuppressWarnings("ClassCanBeRecord")
 public final class SortedDocumentStream implements PipeStream<Pair<UUID, DocumentData>> {
 
     private final List<Pair<String, SortOrder>> sortOrder;
     private final PipeStream<Pair<UUID, DocumentData>> pipeStream;
+    private final long limit;
 
     public SortedDocumentStream(List<Pair<String, SortOrder>> sortOrder, PipeStream<Pair<UUID, DocumentData>> pipeStream) {
+        this(sortOrder, Long.MAX_VALUE, pipeStream);
+    }
+
+    /**
+     * @param limit the number of documents that are read from the start of the sorted stream at most, usually skip
+     *              plus limit of the find
+     */
+    public SortedDocumentStream(List<Pair<String, SortOrder>> sortOrder, long limit, PipeStream<Pair<UUID, DocumentData>> pipeStream) {
         this.sortOrder = sortOrder;
+        this.limit = limit;
         this.pipeStream = pipeStream;
     }
 
     @Override
     public @NotNull Iterator<Pair<UUID, DocumentData>> iterator() {
-        if (this.pipeStream == null)
+        if (this.pipeStream == null || this.limit == 0)
             return Collections.emptyIterator();
 
         DocumentSorter documentSorter = new DocumentSorter(this.sortOrder);
+        Comparator<SortKey> comparator = (first, second) -> {
+            int result = documentSorter.compareKeys(first.keys, second.keys);
+            return result != 0 ? result : Long.compare(first.position, second.position);
+        };
+
+        List<SortKey> records;
+        Iterator<Pair<UUID, DocumentData>> iterator = this.pipeStream.iterator();
+        try {
+            if (this.limit < Integer.MAX_VALUE) {
+                // The head of the heap is the worst document kept so far and is replaced by any better one
+                PriorityQueue<SortKey> heap = new PriorityQueue<>(comparator.reversed());
+                long position = 0;
+                while (iterator.hasNext()) {
+                    Pair<UUID, DocumentData> pair = iterator.next();
+                    SortKey record = new SortKey(pair, documentSorter.keys(pair.second()), position++);
+                    if (heap.size() < this.limit) {
+                        heap.add(record);
+                    } else if (comparator.compare(record, heap.peek()) < 0) {
+                        heap.poll();
+                        heap.add(record);
+                    }
+                }
+                records = new ArrayList<>(heap);
+            } else {
+                records = new ArrayList<>();
+                long position = 0;
+                while (iterator.hasNext()) {
+                    Pair<UUID, DocumentData> pair = iterator.next();
+                    records.add(new SortKey(pair, documentSorter.keys(pair.second()), position++));
+                }
+            }
+        } finally {
+            CloseableIterator.close(iterator);
+        }
+        records.sort(comparator);
+
+        List<Pair<UUID, DocumentData>> sorted = new ArrayList<>(records.size());
+        for (SortKey record : records) {
+            sorted.add(record.pair);
+        }
+        return sorted.iterator();
+    }
+
+    private final static class SortKey {
 
-        List<Pair<UUID, DocumentData>> recordList = Iterables.toList(this.pipeStream);
-        recordList.sort(documentSorter);
+        private final Pair<UUID, DocumentData> pair;
+        private final Object[] keys;
+        private final long position;
 
-        return recordList.iterator();
+        SortKey(Pair<UUID, DocumentData> pair, Object[] keys, long position) {
+            this.pair = pair;
+            this.keys = keys;
+            this.position = position;
+        }
     }
 }
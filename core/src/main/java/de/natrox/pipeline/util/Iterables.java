@@ -16,6 +16,8 @@
 
 package de.natrox.pipeline.util;
 
+import de.natrox.pipeline.stream.CloseableIterator;
+
 import java.util.*;
 
 public final class Iterables {
@@ -28,18 +30,27 @@ public static <T> T firstOrNull(Iterable<T> iterable) {
         if (iterable == null) return null;
 
         Iterator<T> iterator = iterable.iterator();
-        if (iterator.hasNext()) {
-            return iterator.next();
+        try {
+            if (iterator.hasNext()) {
+                return iterator.next();
+            }
+            return null;
+        } finally {
+            CloseableIterator.close(iterator);
         }
-        return null;
     }
 
     public static <T> List<T> toList(Iterable<T> iterable) {
         if (iterable instanceof List)
             return (List<T>) iterable;
         List<T> list = new ArrayList<>();
-        for (T item : iterable) {
-            list.add(item);
+        Iterator<T> iterator = iterable.iterator();
+        try {
+            while (iterator.hasNext()) {
+                list.add(iterator.next());
+            }
+        } finally {
+            CloseableIterator.close(iterator);
         }
         return list;
     }
@@ -48,8 +59,13 @@ public static <T> Set<T> toSet(Iterable<T> iterable) {
         if (iterable instanceof Set)
             return (Set<T>) iterable;
         Set<T> set = new LinkedHashSet<>();
-        for (T item : iterable) {
-            set.add(item);
+        Iterator<T> iterator = iterable.iterator();
+        try {
+            while (iterator.hasNext()) {
+                set.add(iterator.next());
+            }
+        } finally {
+            CloseableIterator.close(iterator);
         }
         return set;
     }
@@ -60,8 +76,14 @@ public static long size(Iterable<?> iterable) {
         }
 
         long count = 0;
-        for (Object ignored : iterable) {
-            count++;
+        Iterator<?> iterator = iterable.iterator();
+        try {
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+        } finally {
+            CloseableIterator.close(iterator);
         }
         return count;
     }
@@ -22,6 +22,8 @@
 
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -61,6 +63,45 @@ public void testGet() {
         assertNull(documentData.get("level.test"));
     }
 
+    @Test
+    public void testGetFieldPath() {
+        documentData.append("friends", List.of(DocumentData.create("name", "Max"), DocumentData.create("name", "Tom")));
+
+        assertSame(FieldPath.of("address.street"), FieldPath.of("address.street"));
+        assertEquals(documentData.get(FieldPath.of("address.street")), "montana-avenue");
+        assertEquals(documentData.get(FieldPath.of("level")), 234685);
+        assertEquals(documentData.get(FieldPath.of("friends.1.name")), "Tom");
+        assertEquals(Set.copyOf((List<?>) documentData.get(FieldPath.of("friends.name"))), Set.of("Max", "Tom"));
+        assertNull(documentData.get(FieldPath.of(".")));
+        assertNull(documentData.get(FieldPath.of("level.test")));
+    }
+
+    @Test
+    public void testClone() {
+        DocumentData clone = documentData.clone();
+        assertEquals(documentData, clone);
+
+        clone.append("address.street", "baker-street");
+        clone.append("test.level", 3);
+        assertEquals(documentData.get("address.street"), "montana-avenue");
+        assertNull(documentData.get("test.level"));
+
+        ((DocumentData) documentData.get("test")).append("name", "Max");
+        assertEquals(clone.get("test.name"), "Eric");
+        assertEquals(clone.get("address.street"), "baker-street");
+    }
+
+    @Test
+    public void testCloneIsSnapshot() {
+        DocumentData inner = DocumentData.create("a", 1);
+        DocumentData document = DocumentData.create("inner", inner);
+        DocumentData snapshot = document.clone();
+
+        inner.append("a", 2);
+        assertEquals(1, snapshot.get("inner.a"));
+        assertEquals(2, document.get("inner.a"));
+    }
+
     @Test
     public void testPutNull() {
         assertNotNull(documentData.append("test", null));
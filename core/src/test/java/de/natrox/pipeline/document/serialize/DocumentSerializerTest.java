@@ -0,0 +1,144 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.document.serialize;
+
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import de.natrox.pipeline.document.DocumentData;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentSerializerTest {
+
+    @Test
+    public void testRoundTrip() {
+        DocumentSerializer documentSerializer = DocumentSerializer.create();
+        UUID uniqueId = UUID.randomUUID();
+        DocumentData documentData = DocumentData
+            .create("uniqueId", uniqueId)
+            .append("name", "Eric")
+            .append("friends", List.of(UUID.randomUUID(), UUID.randomUUID()))
+            .append("address.street", "montana-avenue");
+
+        DocumentData read = documentSerializer.read(documentSerializer.write(documentData));
+        assertEquals(documentData, read);
+        assertEquals(uniqueId, read.get("uniqueId"));
+    }
+
+    @Test
+    public void testProjectedRead() {
+        DocumentSerializer documentSerializer = DocumentSerializer.create();
+        DocumentData documentData = DocumentData
+            .create("name", "Eric")
+            .append("friends", List.of(UUID.randomUUID(), UUID.randomUUID()))
+            .append("address.street", "montana-avenue")
+            .append("address.city", "Springfield");
+
+        DocumentData read = documentSerializer.read(documentSerializer.write(documentData), Set.of("name", "address"));
+        assertEquals("Eric", read.get("name"));
+        assertFalse(read.containsKey("friends"));
+        assertEquals("montana-avenue", read.get("address.street"));
+        assertEquals("Springfield", read.get("address.city"));
+        assertEquals(documentData, documentSerializer.read(documentSerializer.write(documentData), null));
+    }
+
+    @Test
+    public void testByteBufferRoundTrip() {
+        DocumentSerializer documentSerializer = DocumentSerializer.create();
+        DocumentData documentData = DocumentData
+            .create("uniqueId", UUID.randomUUID())
+            .append("level", 234685);
+
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.position(8);
+        int written = documentSerializer.write(documentData, buffer);
+
+        assertEquals(8 + written, buffer.position());
+        assertArrayEquals(documentSerializer.write(documentData), Arrays.copyOfRange(buffer.array(), 8, 8 + written));
+
+        buffer.flip().position(8);
+        assertEquals(documentData, documentSerializer.read(buffer));
+        assertEquals(8 + written, buffer.position());
+    }
+
+    @Test
+    public void testByteBufferOverflow() {
+        DocumentSerializer documentSerializer = DocumentSerializer.create();
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+
+        assertThrows(BufferOverflowException.class, () -> documentSerializer.write(DocumentData.create("name", "Eric"), buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    public void testSchemaRoundTrip() {
+        DocumentSerializer documentSerializer = DocumentSerializer.create();
+        DocumentSchema schema = DocumentSchema.create("Player", List.of("lastJoin", "name", "uniqueId"));
+        documentSerializer.registerSchema(schema);
+        UUID uniqueId = UUID.randomUUID();
+
+        byte[] bytes = documentSerializer.write(schema, new Object[]{null, "Eric", uniqueId});
+        assertArrayEquals(new Object[]{null, "Eric", uniqueId}, documentSerializer.read(schema, bytes));
+        assertEquals(DocumentData.create("name", "Eric").append("uniqueId", uniqueId), documentSerializer.read(bytes));
+    }
+
+    @Test
+    public void testSchemaEvolution() {
+        DocumentSerializer documentSerializer = DocumentSerializer.create();
+        byte[] bytes = documentSerializer.write(DocumentSchema.create("Player", List.of("level", "name")), new Object[]{3, "Eric"});
+
+        DocumentSchema changed = DocumentSchema.create("Player", List.of("lastJoin", "name"));
+        assertArrayEquals(new Object[]{null, "Eric"}, documentSerializer.read(changed, bytes));
+        assertNull(documentSerializer.read(changed, documentSerializer.write(DocumentData.create("name", "Eric"))));
+    }
+
+    @Test
+    public void testUUIDBinaryFormat() {
+        DocumentSerializerImpl.UUIDSerializer serializer = new DocumentSerializerImpl.UUIDSerializer();
+        UUID uniqueId = UUID.randomUUID();
+
+        Output output = new Output(64);
+        serializer.write(null, output, uniqueId);
+        byte[] bytes = output.toBytes();
+
+        assertEquals(17, bytes.length);
+        assertEquals(uniqueId, serializer.read(null, new Input(bytes), UUID.class));
+    }
+
+    @Test
+    public void testUUIDLegacyFormat() {
+        DocumentSerializerImpl.UUIDSerializer serializer = new DocumentSerializerImpl.UUIDSerializer();
+        UUID uniqueId = UUID.randomUUID();
+
+        Output output = new Output(64);
+        output.writeString(uniqueId.toString());
+        output.writeInt(42);
+
+        Input input = new Input(output.toBytes());
+        assertEquals(uniqueId, serializer.read(null, input, UUID.class));
+        assertEquals(42, input.readInt());
+    }
+
+}
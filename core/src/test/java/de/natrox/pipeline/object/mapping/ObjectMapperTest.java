@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.object.mapping;
+
+import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.object.ObjectData;
+import de.natrox.pipeline.object.annotation.Named;
+import de.natrox.pipeline.object.annotation.Properties;
+import de.natrox.pipeline.repository.Pipeline;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectMapperTest {
+
+    @Test
+    public void testSaveAndLoad() {
+        ObjectMapper<TestData> objectMapper = ObjectMapper.create(TestData.class);
+        UUID uniqueId = UUID.randomUUID();
+        DocumentData documentData = DocumentData
+            .create("uniqueId", uniqueId)
+            .append("player_name", "Eric")
+            .append("level", 12)
+            .append("onlineTime", 3600L);
+
+        TestData data = new TestData(null);
+        objectMapper.load(data, documentData);
+
+        assertEquals(uniqueId, data.uniqueId());
+        assertEquals("Eric", data.name);
+        assertEquals(12, data.level);
+        assertEquals(3600L, data.onlineTime);
+        assertEquals(documentData, objectMapper.save(data));
+    }
+
+    @Test
+    public void testValues() {
+        ObjectMapper<TestData> objectMapper = ObjectMapper.create(TestData.class);
+        TestData data = new TestData(null);
+        data.level = 7;
+
+        assertEquals(List.of("level", "onlineTime", "player_name", "uniqueId"), objectMapper.schema().fields());
+        assertArrayEquals(new Object[]{7, null, null, null}, objectMapper.values(data));
+
+        TestData loaded = new TestData(null);
+        objectMapper.load(loaded, new Object[]{3, 60L, "Eric", null});
+        assertEquals(3, loaded.level);
+        assertEquals(60L, loaded.onlineTime);
+        assertEquals("Eric", loaded.name);
+    }
+
+    @Test
+    public void testGeneratedAccessors() throws NoSuchFieldException {
+        TestData data = new TestData(null);
+        FieldAccessor level = FieldAccessors.create(TestData.class.getDeclaredField("level"), true);
+        FieldAccessor name = FieldAccessors.create(TestData.class.getDeclaredField("name"), true);
+        FieldAccessor constant = FieldAccessors.create(TestData.class.getDeclaredField("constant"), true);
+
+        assertTrue(level.getClass().isHidden());
+        assertTrue(name.getClass().isHidden());
+        assertFalse(constant.getClass().isHidden());
+
+        level.set(data, 5);
+        name.set(data, "Eric");
+        constant.set(data, "changed");
+        assertEquals(5, level.get(data));
+        assertEquals("Eric", name.get(data));
+        assertEquals("changed", constant.get(data));
+        assertThrows(ClassCastException.class, () -> level.set(data, "five"));
+    }
+
+    @Properties(identifier = "TestData")
+    static class TestData extends ObjectData {
+
+        private static final int UNUSED = 0;
+
+        @Named(name = "player_name")
+        private String name;
+        private int level;
+        private Long onlineTime;
+        private transient String ignored;
+        private final transient String constant = "constant";
+
+        public TestData(Pipeline pipeline) {
+            super(pipeline);
+        }
+    }
+}
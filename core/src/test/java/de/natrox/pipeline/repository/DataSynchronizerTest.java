@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.pipeline.concurrent.SynchronizerConfig;
+import de.natrox.pipeline.part.store.StoreMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class DataSynchronizerTest {
+
+    @Test
+    public void testSynchronizeTo() throws Exception {
+        StoreMap storageMap = mock(StoreMap.class);
+        StoreMap localCacheMap = mock(StoreMap.class);
+        ExecutorService executor = DataSynchronizer.createExecutor(SynchronizerConfig.defaults());
+        DataSynchronizer dataSynchronizer = new DataSynchronizer(storageMap, null, localCacheMap, executor);
+        UUID uniqueId = UUID.randomUUID();
+        byte[] data = new byte[]{1};
+
+        try {
+            assertTrue(dataSynchronizer.synchronizeTo(uniqueId, data, DataSynchronizer.DataSourceType.LOCAL_CACHE).get(5, TimeUnit.SECONDS));
+            verify(localCacheMap).put(uniqueId, data);
+
+            dataSynchronizer.close();
+            assertFalse(dataSynchronizer.synchronizeTo(uniqueId, data, DataSynchronizer.DataSourceType.LOCAL_CACHE).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDiscardWhenFull() throws Exception {
+        SynchronizerConfig config = SynchronizerConfig.builder()
+            .threads(1)
+            .queueCapacity(0)
+            .rejectionPolicy(SynchronizerConfig.RejectionPolicy.DISCARD)
+            .build();
+        ExecutorService executor = DataSynchronizer.createExecutor(config);
+        CountDownLatch release = new CountDownLatch(1);
+        StoreMap localCacheMap = mock(StoreMap.class);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS)).when(localCacheMap).put(any(UUID.class), any(byte[].class));
+        DataSynchronizer dataSynchronizer = new DataSynchronizer(mock(StoreMap.class), null, localCacheMap, executor);
+
+        try {
+            CompletableFuture<Boolean> running = dataSynchronizer.synchronizeTo(UUID.randomUUID(), new byte[]{1}, DataSynchronizer.DataSourceType.LOCAL_CACHE);
+            CompletableFuture<Boolean> discarded = dataSynchronizer.synchronizeTo(UUID.randomUUID(), new byte[]{2}, DataSynchronizer.DataSourceType.LOCAL_CACHE);
+
+            assertFalse(discarded.get(5, TimeUnit.SECONDS));
+            release.countDown();
+            assertTrue(running.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
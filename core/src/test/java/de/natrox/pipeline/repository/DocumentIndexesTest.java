@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.pipeline.condition.Conditions;
+import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.part.memory.InMemoryProvider;
+import de.natrox.pipeline.part.provider.GlobalStorageProvider;
+import de.natrox.pipeline.part.store.Store;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DocumentIndexesTest {
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    private final UUID third = UUID.randomUUID();
+
+    @Test
+    public void testLookup() {
+        DocumentIndexes indexes = this.indexes();
+
+        assertEquals(Set.of(this.first), indexes.candidates(Conditions.eq("name", "Eric")));
+        assertEquals(Set.of(this.second, this.third), indexes.candidates(Conditions.gt("level", 5)));
+        assertEquals(Set.of(this.first, this.second), indexes.candidates(Conditions.lte("level", 10L)));
+        assertNull(indexes.candidates(Conditions.eq("clan", "red")));
+    }
+
+    @Test
+    public void testComposite() {
+        DocumentIndexes indexes = this.indexes();
+
+        assertEquals(Set.of(this.second), indexes.candidates(Conditions.and(Conditions.gt("level", 5), Conditions.eq("clan", "red"), Conditions.lt("level", 20))));
+        assertEquals(Set.of(this.first, this.third), indexes.candidates(Conditions.or(Conditions.eq("name", "Eric"), Conditions.gte("level", 20))));
+        assertNull(indexes.candidates(Conditions.or(Conditions.eq("name", "Eric"), Conditions.eq("clan", "red"))));
+    }
+
+    @Test
+    public void testUpdate() {
+        DocumentIndexes indexes = this.indexes();
+
+        indexes.put(this.first, DocumentData.create("name", "Tom").append("level", 1));
+        indexes.remove(this.third);
+
+        assertEquals(Set.of(), indexes.candidates(Conditions.eq("name", "Eric")));
+        assertEquals(Set.of(this.first, this.second), indexes.candidates(Conditions.gt("level", 0.5)));
+    }
+
+    @Test
+    public void testLocalStorage() {
+        Pipeline pipeline = Pipeline.create(InMemoryProvider.create()).build();
+        DocumentRepository repository = pipeline.buildRepository("test").index("name").build();
+
+        repository.insert(this.first, DocumentData.create("name", "Eric"));
+        repository.insert(this.second, DocumentData.create("name", "Anna"));
+
+        assertEquals(List.of(DocumentData.create("name", "Eric")), repository.find(options -> options.condition(Conditions.eq("name", "Eric"))).toList());
+        pipeline.close();
+    }
+
+    @Test
+    public void testSharedStorage() {
+        Store storage = InMemoryProvider.create().createLocalStorage();
+        GlobalStorageProvider provider = new GlobalStorageProvider() {
+            @Override
+            public Store createGlobalStorage() {
+                return storage;
+            }
+
+            @Override
+            public void close() {
+
+            }
+        };
+        Pipeline reading = Pipeline.create(provider).build();
+        Pipeline writing = Pipeline.create(provider).build();
+
+        assertThrows(IllegalStateException.class, () -> reading.buildRepository("test").index("name").build());
+
+        DocumentRepository repository = reading.buildRepository("test").build();
+        writing.buildRepository("test").build().insert(this.first, DocumentData.create("name", "Eric"));
+
+        assertEquals(1, repository.find(options -> options.condition(Conditions.eq("name", "Eric"))).size());
+        reading.close();
+        writing.close();
+    }
+
+    @Test
+    public void testExclusiveStorage() {
+        Store storage = InMemoryProvider.create().createLocalStorage();
+        Pipeline pipeline = Pipeline.create(new GlobalStorageProvider() {
+            @Override
+            public Store createGlobalStorage() {
+                return storage;
+            }
+
+            @Override
+            public void close() {
+
+            }
+        }).exclusiveStorage().build();
+        DocumentRepository repository = pipeline.buildRepository("test").index("name").build();
+
+        repository.insert(this.first, DocumentData.create("name", "Eric"));
+        repository.insert(this.second, DocumentData.create("name", "Anna"));
+
+        assertEquals(1, repository.find(options -> options.condition(Conditions.eq("name", "Eric"))).size());
+        pipeline.close();
+    }
+
+    private DocumentIndexes indexes() {
+        DocumentIndexes indexes = new DocumentIndexes(List.of("name", "level"));
+        indexes.put(this.first, DocumentData.create("name", "Eric").append("level", 5));
+        indexes.put(this.second, DocumentData.create("name", "Anna").append("level", 10L).append("clan", "red"));
+        indexes.put(this.third, DocumentData.create("name", "Paul").append("level", 20));
+        return indexes;
+    }
+}
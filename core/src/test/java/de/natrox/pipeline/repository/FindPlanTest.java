@@ -0,0 +1,238 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.common.container.Pair;
+import de.natrox.pipeline.condition.Conditions;
+import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.document.serialize.DocumentSerializer;
+import de.natrox.pipeline.find.FindOptions;
+import de.natrox.pipeline.part.store.StoreMap;
+import de.natrox.pipeline.sort.Sorts;
+import de.natrox.pipeline.stream.CloseableIterator;
+import de.natrox.pipeline.stream.DocumentStream;
+import de.natrox.pipeline.stream.PipeStream;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class FindPlanTest {
+
+    private final DocumentSerializer documentSerializer = DocumentSerializer.create();
+
+    @Test
+    public void testPagingPushdown() {
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.scan(2, 3)).thenReturn(this.entries(3));
+
+        FindOptions findOptions = FindOptions.builder().skip(2).limit(3).build();
+        PipeStream<Pair<UUID, DocumentData>> stream = new FindPlan(findOptions).stream(storeMap, this.documentSerializer);
+
+        assertEquals(3, stream.toList().size());
+        verify(storeMap).scan(2, 3);
+        verify(storeMap, never()).scan();
+    }
+
+    @Test
+    public void testUnpagedScan() {
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.scan()).thenReturn(this.entries(10));
+
+        PipeStream<Pair<UUID, DocumentData>> stream = new FindPlan(FindOptions.defaults()).stream(storeMap, this.documentSerializer);
+
+        assertEquals(10, stream.toList().size());
+        verify(storeMap).scan();
+        verify(storeMap, never()).scan(anyLong(), anyLong());
+    }
+
+    @Test
+    public void testResidualPaging() {
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.scan()).thenReturn(this.entries(10));
+
+        FindOptions findOptions = FindOptions.builder()
+            .condition(Conditions.lt("index", 6))
+            .skip(2)
+            .limit(3)
+            .build();
+        List<Pair<UUID, DocumentData>> result = new FindPlan(findOptions).stream(storeMap, this.documentSerializer).toList();
+
+        assertEquals(3, result.size());
+        assertEquals(2, result.get(0).second().get("index"));
+        verify(storeMap, never()).scan(anyLong(), anyLong());
+    }
+
+    @Test
+    public void testSortedTopK() {
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.scan()).thenReturn(this.entries(50));
+
+        FindOptions findOptions = FindOptions.builder()
+            .sort(Sorts.descending("shuffled"))
+            .skip(2)
+            .limit(5)
+            .build();
+        List<Pair<UUID, DocumentData>> result = new FindPlan(findOptions).stream(storeMap, this.documentSerializer).toList();
+
+        assertEquals(List.of(47, 46, 45, 44, 43), result.stream().map(pair -> pair.second().get("shuffled")).toList());
+    }
+
+    @Test
+    public void testParallelKeepsScanOrder() {
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.scan()).thenReturn(this.entries(10000));
+
+        FindOptions findOptions = FindOptions.builder()
+            .condition(Conditions.gte("index", 100))
+            .parallel(true)
+            .build();
+        List<Pair<UUID, DocumentData>> result = new FindPlan(findOptions).stream(storeMap, this.documentSerializer).toList();
+
+        assertEquals(9900, result.size());
+        for (int i = 0; i < result.size(); i++) {
+            assertEquals(i + 100, result.get(i).second().get("index"));
+        }
+    }
+
+    @Test
+    public void testParallelAvoidsCommonPool() {
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.scan()).thenReturn(this.entries(10000));
+
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        FindOptions findOptions = FindOptions.builder()
+            .condition(element -> threads.add(Thread.currentThread().getName()) || true)
+            .parallel(true)
+            .build();
+
+        assertEquals(10000, new FindPlan(findOptions).stream(storeMap, this.documentSerializer).size());
+        assertTrue(threads.stream().noneMatch(thread -> thread.startsWith("ForkJoinPool.commonPool")));
+    }
+
+    @Test
+    public void testProjection() {
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.scan()).thenReturn(this.entries(10));
+
+        FindOptions findOptions = FindOptions.builder()
+            .condition(Conditions.lt("index", 6))
+            .sort(Sorts.ascending("shuffled"))
+            .project("shuffled", "nested.index")
+            .build();
+        List<Pair<UUID, DocumentData>> result = new FindPlan(findOptions).stream(storeMap, this.documentSerializer).toList();
+
+        assertEquals(6, result.size());
+        for (Pair<UUID, DocumentData> pair : result) {
+            assertEquals(Set.of("shuffled", "nested.index"), pair.second().fields());
+        }
+    }
+
+    @Test
+    public void testCount() {
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.size()).thenReturn(10L);
+        when(storeMap.scan()).thenReturn(this.entries(10));
+
+        assertEquals(7, new FindPlan(FindOptions.builder().skip(3).build()).count(storeMap, this.documentSerializer));
+        verify(storeMap, never()).scan();
+
+        FindOptions findOptions = FindOptions.builder()
+            .condition(Conditions.lt("index", 6))
+            .skip(2)
+            .limit(3)
+            .build();
+        assertEquals(3, new FindPlan(findOptions).count(storeMap, this.documentSerializer));
+    }
+
+    @Test
+    public void testCursorClosesAbandonedScan() {
+        AtomicInteger closed = new AtomicInteger();
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.scan()).thenAnswer(invocation -> CloseableIterator.of(this.entries(10), closed::incrementAndGet));
+        FindOptions findOptions = FindOptions.builder().condition(Conditions.lt("index", 6)).build();
+
+        DocumentStream cursor = new DocumentStream(new FindPlan(findOptions).stream(storeMap, this.documentSerializer));
+        assertTrue(cursor.first().isPresent());
+        assertEquals(1, closed.get());
+
+        try (cursor) {
+            for (DocumentData ignored : cursor) {
+                break;
+            }
+            assertEquals(1, closed.get());
+        }
+        assertEquals(2, closed.get());
+        assertFalse(cursor.iterator().hasNext());
+    }
+
+    @Test
+    public void testProjectionKeepsLists() {
+        DocumentData document = DocumentData.create("index", 1).append("tags", List.of("a", "b")).append("empty", DocumentData.create()).append("other", List.of("c"));
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.scan()).thenReturn(CloseableIterator.of(List.of(Pair.of(UUID.randomUUID(), this.documentSerializer.write(document))).iterator()));
+
+        FindOptions findOptions = FindOptions.builder()
+            .condition(Conditions.and(Conditions.eq("index", 1), Conditions.eq("other", List.of("c"))))
+            .project("tags", "empty")
+            .build();
+        List<Pair<UUID, DocumentData>> result = new FindPlan(findOptions).stream(storeMap, this.documentSerializer).toList();
+
+        assertEquals(1, result.size());
+        assertEquals(List.of("a", "b"), result.get(0).second().get("tags"));
+        assertTrue(result.get(0).second().containsKey("empty"));
+        assertFalse(result.get(0).second().containsKey("index"));
+        assertFalse(result.get(0).second().containsKey("other"));
+    }
+
+    @Test
+    public void testCandidateOrder() {
+        Set<UUID> candidates = new LinkedHashSet<>();
+        Map<UUID, byte[]> stored = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            UUID uniqueId = UUID.randomUUID();
+            candidates.add(uniqueId);
+            stored.put(uniqueId, this.documentSerializer.write(DocumentData.create("index", i)));
+        }
+        StoreMap storeMap = mock(StoreMap.class);
+        when(storeMap.getAll(anyCollection())).thenReturn(stored);
+
+        FindOptions findOptions = FindOptions.builder().condition(Conditions.gte("index", 0)).build();
+        List<Pair<UUID, DocumentData>> result = new FindPlan(findOptions, candidates).stream(storeMap, this.documentSerializer).toList();
+
+        assertEquals(List.copyOf(candidates), result.stream().map(Pair::first).toList());
+        verify(storeMap, never()).scan();
+    }
+
+    private CloseableIterator<Pair<UUID, byte[]>> entries(int count) {
+        List<Pair<UUID, byte[]>> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            entries.add(Pair.of(UUID.randomUUID(), this.documentSerializer.write(DocumentData.create("index", i).append("shuffled", i * 7 % count).append("nested.index", i))));
+        }
+        return CloseableIterator.of(entries.iterator());
+    }
+}
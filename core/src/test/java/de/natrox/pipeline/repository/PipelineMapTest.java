@@ -0,0 +1,304 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.common.container.Pair;
+import de.natrox.pipeline.concurrent.SynchronizerConfig;
+import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.document.serialize.DocumentSerializer;
+import de.natrox.pipeline.find.FindOptions;
+import de.natrox.pipeline.part.store.StoreMap;
+import de.natrox.pipeline.stream.CloseableIterator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PipelineMapTest {
+
+    @Test
+    public void testCoalescedLoad() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        byte[] data = new byte[]{1, 2, 3};
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StoreMap storageMap = mock(StoreMap.class);
+        when(storageMap.get(uniqueId)).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return data;
+        });
+        StoreMap localCacheMap = mock(StoreMap.class);
+        ExecutorService executor = DataSynchronizer.createExecutor(SynchronizerConfig.defaults());
+        PipelineMap pipelineMap = new PipelineMap("test", storageMap, null, localCacheMap, null, executor, null, null, null);
+
+        try {
+            CompletableFuture<byte[]> first = CompletableFuture.supplyAsync(() -> pipelineMap.get(uniqueId));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            CompletableFuture<byte[]> second = CompletableFuture.supplyAsync(() -> pipelineMap.get(uniqueId));
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (pipelineMap.metrics().coalescedLoads() == 0 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertArrayEquals(data, first.get(5, TimeUnit.SECONDS));
+            assertArrayEquals(data, second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, pipelineMap.metrics().coalescedLoads());
+            assertEquals(1, pipelineMap.metrics().loadCount());
+            verify(storageMap, times(1)).get(uniqueId);
+        } finally {
+            pipelineMap.close();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNoLoadsWithoutLocalCache() {
+        UUID uniqueId = UUID.randomUUID();
+        StoreMap storageMap = mock(StoreMap.class);
+        when(storageMap.get(uniqueId)).thenReturn(new byte[]{1});
+        ExecutorService executor = DataSynchronizer.createExecutor(SynchronizerConfig.defaults());
+        PipelineMap pipelineMap = new PipelineMap("test", storageMap, null, null, null, executor, null, null, null);
+
+        try {
+            pipelineMap.get(uniqueId);
+            pipelineMap.getAll(Set.of(uniqueId));
+            assertEquals(0, pipelineMap.metrics().loadCount());
+        } finally {
+            pipelineMap.close();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRefreshAfterWrite() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        byte[] stale = new byte[]{1};
+        byte[] fresh = new byte[]{2};
+        StoreMap storageMap = mock(StoreMap.class);
+        when(storageMap.get(uniqueId)).thenReturn(fresh);
+        StoreMap localCacheMap = mock(StoreMap.class);
+        when(localCacheMap.get(uniqueId)).thenReturn(stale);
+        ExecutorService executor = DataSynchronizer.createExecutor(SynchronizerConfig.defaults());
+        RefreshTracker localRefresh = new RefreshTracker(TimeUnit.MILLISECONDS.toNanos(20), -1);
+        PipelineMap pipelineMap = new PipelineMap("test", storageMap, null, localCacheMap, null, executor, null, null, localRefresh);
+
+        try {
+            assertArrayEquals(stale, pipelineMap.get(uniqueId));
+            assertArrayEquals(stale, pipelineMap.get(uniqueId));
+            verify(storageMap, never()).get(uniqueId);
+
+            Thread.sleep(40);
+            assertArrayEquals(stale, pipelineMap.get(uniqueId));
+            verify(localCacheMap, timeout(5000)).put(uniqueId, fresh);
+            verify(storageMap, times(1)).get(uniqueId);
+        } finally {
+            pipelineMap.close();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFillAfterWriteIsDiscarded() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        byte[] stale = new byte[]{1};
+        byte[] fresh = new byte[]{2};
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StoreMap storageMap = mock(StoreMap.class);
+        when(storageMap.get(uniqueId)).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return stale;
+        });
+        StoreMap localCacheMap = mock(StoreMap.class);
+        ExecutorService executor = DataSynchronizer.createExecutor(SynchronizerConfig.defaults());
+        PipelineMap pipelineMap = new PipelineMap("test", storageMap, null, localCacheMap, null, executor, null, null, null);
+
+        try {
+            CompletableFuture<byte[]> read = CompletableFuture.supplyAsync(() -> pipelineMap.get(uniqueId));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            pipelineMap.put(uniqueId, fresh, Set.of(QueryStrategy.ALL));
+            release.countDown();
+
+            assertArrayEquals(stale, read.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            pipelineMap.close();
+        }
+        verify(localCacheMap).put(uniqueId, fresh);
+        verify(localCacheMap, never()).put(uniqueId, stale);
+    }
+
+    @Test
+    public void testFillAfterRemoveIsDiscarded() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        byte[] stale = new byte[]{1};
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StoreMap storageMap = mock(StoreMap.class);
+        when(storageMap.get(uniqueId)).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return stale;
+        });
+        StoreMap localCacheMap = mock(StoreMap.class);
+        ExecutorService executor = DataSynchronizer.createExecutor(SynchronizerConfig.defaults());
+        PipelineMap pipelineMap = new PipelineMap("test", storageMap, null, localCacheMap, null, executor, null, null, null);
+
+        try {
+            CompletableFuture<byte[]> read = CompletableFuture.supplyAsync(() -> pipelineMap.get(uniqueId));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            pipelineMap.remove(uniqueId, Set.of(QueryStrategy.ALL));
+            release.countDown();
+
+            assertArrayEquals(stale, read.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            pipelineMap.close();
+        }
+        verify(localCacheMap, never()).put(eq(uniqueId), any());
+    }
+
+    @Test
+    public void testFillWithoutWrite() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        byte[] data = new byte[]{1};
+        StoreMap storageMap = mock(StoreMap.class);
+        when(storageMap.get(uniqueId)).thenReturn(data);
+        StoreMap localCacheMap = mock(StoreMap.class);
+        ExecutorService executor = DataSynchronizer.createExecutor(SynchronizerConfig.defaults());
+        PipelineMap pipelineMap = new PipelineMap("test", storageMap, null, localCacheMap, null, executor, null, null, null);
+
+        try {
+            assertArrayEquals(data, pipelineMap.get(uniqueId));
+            verify(localCacheMap, timeout(5000)).put(uniqueId, data);
+        } finally {
+            pipelineMap.close();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testScanMergesQueuedWrites() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        byte[] latest = new byte[]{2};
+        byte[] added = new byte[]{3};
+        StoreMap storageMap = mock(StoreMap.class);
+        when(storageMap.scan()).thenAnswer(invocation -> CloseableIterator.of(List.of(Pair.of(first, new byte[]{1}), Pair.of(second, new byte[]{1})).iterator()));
+        when(storageMap.keys()).thenReturn(List.of(first, second));
+        when(storageMap.entries()).thenReturn(Map.of(first, new byte[]{1}, second, new byte[]{1}));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService executor = DataSynchronizer.createExecutor(SynchronizerConfig.defaults());
+        WriteBehindQueue writeBehindQueue = new WriteBehindQueue(storageMap, TimeUnit.HOURS.toNanos(1), 100, scheduler);
+        PipelineMap pipelineMap = new PipelineMap("test", storageMap, null, null, null, executor, writeBehindQueue, null, null);
+
+        try {
+            pipelineMap.put(first, latest, Set.of(QueryStrategy.ALL));
+            pipelineMap.put(third, added, Set.of(QueryStrategy.ALL));
+            pipelineMap.remove(second, Set.of(QueryStrategy.ALL));
+
+            List<Pair<UUID, byte[]>> scanned = new ArrayList<>();
+            pipelineMap.scan().forEachRemaining(scanned::add);
+            assertEquals(List.of(first, third), scanned.stream().map(Pair::first).toList());
+            assertSame(latest, scanned.get(0).second());
+            assertEquals(Set.of(first, third), Set.copyOf(pipelineMap.keys()));
+            assertEquals(Set.of(first, third), pipelineMap.entries().keySet());
+            assertSame(latest, pipelineMap.entries().get(first));
+            verify(storageMap, never()).putAll(any());
+            verify(storageMap, never()).remove(second);
+        } finally {
+            pipelineMap.close(false);
+            executor.shutdown();
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testFindSeesQueuedWrites() {
+        DocumentSerializer documentSerializer = DocumentSerializer.create();
+        UUID stored = UUID.randomUUID();
+        UUID queued = UUID.randomUUID();
+        StoreMap storageMap = mock(StoreMap.class);
+        when(storageMap.scan()).thenAnswer(invocation -> CloseableIterator.of(List.of(Pair.of(stored, documentSerializer.write(DocumentData.create("name", "Eric")))).iterator()));
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService executor = DataSynchronizer.createExecutor(SynchronizerConfig.defaults());
+        WriteBehindQueue writeBehindQueue = new WriteBehindQueue(storageMap, TimeUnit.HOURS.toNanos(1), 100, scheduler);
+        PipelineMap pipelineMap = new PipelineMap("test", storageMap, null, null, null, executor, writeBehindQueue, null, null);
+
+        try {
+            pipelineMap.put(queued, documentSerializer.write(DocumentData.create("name", "Anna")), Set.of(QueryStrategy.ALL));
+
+            List<Pair<UUID, DocumentData>> found = new FindPlan(FindOptions.defaults()).stream(pipelineMap, documentSerializer).toList();
+            assertEquals(List.of(stored, queued), found.stream().map(Pair::first).toList());
+            assertEquals("Anna", found.get(1).second().get("name"));
+            verify(storageMap, never()).putAll(any());
+            verify(storageMap, never()).scan(anyLong(), anyLong());
+        } finally {
+            pipelineMap.close(false);
+            executor.shutdown();
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testQueryAllBypassesCaches() {
+        UUID stored = UUID.randomUUID();
+        UUID queued = UUID.randomUUID();
+        StoreMap storageMap = mock(StoreMap.class);
+        when(storageMap.getAll(Set.of(stored))).thenReturn(Map.of(stored, new byte[]{1}));
+        StoreMap localCacheMap = mock(StoreMap.class);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService executor = DataSynchronizer.createExecutor(SynchronizerConfig.defaults());
+        WriteBehindQueue writeBehindQueue = new WriteBehindQueue(storageMap, TimeUnit.HOURS.toNanos(1), 100, scheduler);
+        PipelineMap pipelineMap = new PipelineMap("test", storageMap, null, localCacheMap, null, executor, writeBehindQueue, null, null);
+
+        try {
+            pipelineMap.put(queued, new byte[]{2}, Set.of(QueryStrategy.GLOBAL_STORAGE));
+
+            Map<UUID, byte[]> entries = pipelineMap.queryAll(List.of(stored, queued));
+            assertArrayEquals(new byte[]{1}, entries.get(stored));
+            assertArrayEquals(new byte[]{2}, entries.get(queued));
+            assertEquals(0, pipelineMap.metrics().loadCount());
+            verify(localCacheMap, never()).getAll(any());
+            verify(localCacheMap, never()).put(any(), any());
+            verify(localCacheMap, never()).putAll(any());
+        } finally {
+            pipelineMap.close(false);
+            executor.shutdown();
+            scheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RefreshTrackerTest {
+
+    @Test
+    public void testWriteDuringRefresh() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        RefreshTracker tracker = new RefreshTracker(TimeUnit.MILLISECONDS.toNanos(5), -1);
+
+        tracker.written(uniqueId);
+        Thread.sleep(10);
+        Long claim = tracker.claim(uniqueId);
+        assertNotNull(claim);
+        assertNull(tracker.claim(uniqueId));
+        assertTrue(tracker.isClaimed(uniqueId, claim));
+
+        tracker.written(uniqueId);
+        assertFalse(tracker.isClaimed(uniqueId, claim));
+        assertFalse(tracker.complete(uniqueId, claim, true));
+    }
+
+    @Test
+    public void testRemoveDuringRefresh() throws Exception {
+        UUID uniqueId = UUID.randomUUID();
+        RefreshTracker tracker = new RefreshTracker(TimeUnit.MILLISECONDS.toNanos(5), -1);
+
+        tracker.written(uniqueId);
+        Thread.sleep(10);
+        Long claim = tracker.claim(uniqueId);
+        assertNotNull(claim);
+        assertTrue(tracker.complete(uniqueId, claim, true));
+
+        Thread.sleep(10);
+        claim = tracker.claim(uniqueId);
+        assertNotNull(claim);
+        tracker.removed(uniqueId);
+        assertFalse(tracker.complete(uniqueId, claim, false));
+    }
+
+    @Test
+    public void testBoundedWithoutExpiry() {
+        RefreshTracker tracker = new RefreshTracker(1, -1);
+
+        for (int i = 0; i < 200_000; i++) {
+            tracker.claim(UUID.randomUUID());
+        }
+        assertTrue(tracker.size() <= (1 << 16) + 1024, "tracked " + tracker.size());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.repository;
+
+import de.natrox.pipeline.part.store.StoreMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class WriteBehindQueueTest {
+
+    @Test
+    public void testCollapseAndFlush() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        StoreMap storageMap = mock(StoreMap.class);
+        WriteBehindQueue writeBehindQueue = new WriteBehindQueue(storageMap, TimeUnit.HOURS.toNanos(1), 100, scheduler);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        byte[] latest = new byte[]{2};
+
+        try {
+            writeBehindQueue.put(first, new byte[]{1});
+            writeBehindQueue.put(first, latest);
+            writeBehindQueue.remove(second);
+
+            assertSame(latest, writeBehindQueue.pending(first));
+            assertTrue(WriteBehindQueue.isRemoval(writeBehindQueue.pending(second)));
+            verifyNoInteractions(storageMap);
+
+            writeBehindQueue.close(true);
+
+            verify(storageMap).putAll(Map.of(first, latest));
+            verify(storageMap).remove(second);
+            assertNull(writeBehindQueue.pending(first));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testRequeueOnFailure() {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        StoreMap storageMap = mock(StoreMap.class);
+        doThrow(new IllegalStateException()).when(storageMap).putAll(anyMap());
+        WriteBehindQueue writeBehindQueue = new WriteBehindQueue(storageMap, TimeUnit.HOURS.toNanos(1), 100, scheduler);
+        UUID uniqueId = UUID.randomUUID();
+        byte[] data = new byte[]{1};
+
+        try {
+            writeBehindQueue.put(uniqueId, data);
+            assertThrows(IllegalStateException.class, writeBehindQueue::flush);
+            assertSame(data, writeBehindQueue.pending(uniqueId));
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+}
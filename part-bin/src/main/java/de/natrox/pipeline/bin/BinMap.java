@@ -16,23 +16,30 @@
 
 package de.natrox.pipeline.bin;
 
+import de.natrox.common.container.Pair;
 import de.natrox.common.validate.Check;
 import de.natrox.pipeline.exception.PartException;
 import de.natrox.pipeline.exception.PipelineException;
 import de.natrox.pipeline.part.store.StoreMap;
 import de.natrox.pipeline.repository.QueryStrategy;
+import de.natrox.pipeline.stream.CloseableIterator;
 import jodd.io.FileNameUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
@@ -67,6 +74,22 @@ public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<Quer
         }
     }
 
+    @Override
+    public void putAll(@NotNull Map<UUID, byte[]> entries, @NotNull Set<QueryStrategy> strategies) {
+        Check.notNull(entries, "entries");
+        if (entries.isEmpty())
+            return;
+
+        try {
+            Files.createDirectories(this.mapPath);
+            for (Map.Entry<UUID, byte[]> entry : entries.entrySet()) {
+                Files.write(this.savedFile(entry.getKey()), entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new PartException(e);
+        }
+    }
+
     @Override
     public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -124,6 +147,25 @@ public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> stra
         }
     }
 
+    @Override
+    public @NotNull CloseableIterator<Pair<UUID, byte[]>> scan() {
+        if (Files.notExists(this.mapPath))
+            return CloseableIterator.of(Collections.emptyIterator());
+
+        try {
+            DirectoryStream<Path> stream = Files.newDirectoryStream(this.mapPath, "*.bin");
+            return CloseableIterator.of(new ScanIterator(stream.iterator()), () -> {
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    throw new PartException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new PartException(e);
+        }
+    }
+
     @Override
     public void remove(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -145,7 +187,18 @@ public void clear() {
 
     @Override
     public long size() {
-        return this.keys().size();
+        if (Files.notExists(this.mapPath))
+            return 0;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.mapPath, "*.bin")) {
+            long size = 0;
+            for (Path ignored : stream) {
+                size++;
+            }
+            return size;
+        } catch (IOException e) {
+            throw new PartException(e);
+        }
     }
 
     private byte[] loadFromFile(@NotNull UUID uniqueId) throws IOException {
@@ -179,4 +232,40 @@ private Path savedFile(@NotNull UUID uniqueId) {
         return this.mapPath.resolve(Path.of(uniqueId + ".bin"));
     }
 
+    /**
+     * Reads the files one at a time while the directory is listed, files deleted in the meantime are skipped.
+     */
+    private final static class ScanIterator implements Iterator<Pair<UUID, byte[]>> {
+
+        private final Iterator<Path> paths;
+        private Pair<UUID, byte[]> next;
+
+        ScanIterator(Iterator<Path> paths) {
+            this.paths = paths;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (this.next == null && this.paths.hasNext()) {
+                Path path = this.paths.next();
+                try {
+                    UUID uniqueId = UUID.fromString(FileNameUtil.getBaseName(path.toString()));
+                    this.next = Pair.of(uniqueId, Files.readAllBytes(path));
+                } catch (NoSuchFileException ignored) {
+                } catch (IOException e) {
+                    throw new PartException(e);
+                }
+            }
+            return this.next != null;
+        }
+
+        @Override
+        public Pair<UUID, byte[]> next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            Pair<UUID, byte[]> next = this.next;
+            this.next = null;
+            return next;
+        }
+    }
 }
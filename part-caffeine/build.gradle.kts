@@ -17,4 +17,8 @@
 dependencies {
     compileOnly(project(":core"))
     implementation("com.github.ben-manes.caffeine:caffeine:3.1.1")
+
+    testImplementation(project(":core"))
+    testImplementation("org.junit.jupiter:junit-jupiter-api:5.9.1")
+    testImplementation("org.junit.jupiter:junit-jupiter-engine:5.9.1")
 }
@@ -21,6 +21,7 @@
 import com.github.benmanes.caffeine.cache.Scheduler;
 import de.natrox.common.validate.Check;
 import de.natrox.pipeline.part.config.LocalCacheConfig;
+import de.natrox.pipeline.part.store.CacheStats;
 import de.natrox.pipeline.part.store.StoreMap;
 import de.natrox.pipeline.repository.QueryStrategy;
 import de.natrox.pipeline.repository.RepositoryOptions;
@@ -41,7 +42,8 @@ final class CaffeineMap implements StoreMap {
         LocalCacheConfig config = options.localCacheConfig();
         Caffeine<Object, Object> builder = Caffeine
             .newBuilder()
-            .scheduler(Scheduler.systemScheduler());
+            .scheduler(Scheduler.systemScheduler())
+            .recordStats();
 
         long expireAfterWriteNanos = config.expireAfterWriteNanos();
         if (expireAfterWriteNanos >= 0)
@@ -51,6 +53,14 @@ final class CaffeineMap implements StoreMap {
         if (expireAfterAccessNanos >= 0)
             builder.expireAfterAccess(config.expireAfterAccessNanos(), TimeUnit.NANOSECONDS);
 
+        long maximumSize = config.maximumSize();
+        if (maximumSize >= 0)
+            builder.maximumSize(maximumSize);
+
+        long maximumWeight = config.maximumWeight();
+        if (maximumWeight >= 0)
+            builder.<UUID, byte[]>weigher((uniqueId, data) -> data.length).maximumWeight(maximumWeight);
+
         this.cache = builder.build();
     }
 
@@ -60,6 +70,12 @@ final class CaffeineMap implements StoreMap {
         return this.cache.getIfPresent(uniqueId);
     }
 
+    @Override
+    public @NotNull Map<UUID, byte[]> getAll(@NotNull Collection<UUID> uniqueIds) {
+        Check.notNull(uniqueIds, "uniqueIds");
+        return this.cache.getAllPresent(uniqueIds);
+    }
+
     @Override
     public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -67,6 +83,12 @@ public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<Quer
         this.cache.put(uniqueId, data);
     }
 
+    @Override
+    public void putAll(@NotNull Map<UUID, byte[]> entries, @NotNull Set<QueryStrategy> strategies) {
+        Check.notNull(entries, "entries");
+        this.cache.putAll(entries);
+    }
+
     @Override
     public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -103,4 +125,10 @@ public void clear() {
     public long size() {
         return this.cache.asMap().size();
     }
+
+    @Override
+    public @NotNull CacheStats stats() {
+        com.github.benmanes.caffeine.cache.stats.CacheStats stats = this.cache.stats();
+        return CacheStats.of(stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.evictionWeight());
+    }
 }
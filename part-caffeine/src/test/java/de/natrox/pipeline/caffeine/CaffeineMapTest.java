@@ -0,0 +1,108 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.caffeine;
+
+import de.natrox.pipeline.document.DocumentData;
+import de.natrox.pipeline.part.config.LocalCacheConfig;
+import de.natrox.pipeline.part.memory.InMemoryProvider;
+import de.natrox.pipeline.part.store.CacheStats;
+import de.natrox.pipeline.repository.DocumentRepository;
+import de.natrox.pipeline.repository.Pipeline;
+import de.natrox.pipeline.repository.RepositoryMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CaffeineMapTest {
+
+    private final Pipeline pipeline = Pipeline.create(InMemoryProvider.create()).localCache(CaffeineProvider.create()).build();
+
+    @AfterEach
+    public void close() {
+        this.pipeline.close();
+    }
+
+    @Test
+    public void testMaximumSize() throws InterruptedException {
+        DocumentRepository repository = this.pipeline.buildRepository("test").useLocalCache(builder -> builder.maximumSize(10)).build();
+
+        for (int i = 0; i < 100; i++) {
+            repository.insert(UUID.randomUUID(), DocumentData.create("index", i));
+        }
+
+        // Caffeine evicts in the background and does not count entries it evicts before their insertion was processed
+        CacheStats stats = awaitEvictions(repository, 1);
+        assertTrue(stats.evictionCount() > 0 && stats.evictionCount() <= 90, "evicted " + stats.evictionCount());
+        assertTrue(this.pipeline.metrics().repositories().get("test").localCache().evictionCount() >= stats.evictionCount());
+        assertTrue(this.pipeline.metrics().total().localCache().evictionCount() >= stats.evictionCount());
+    }
+
+    @Test
+    public void testMaximumWeight() throws InterruptedException {
+        DocumentRepository repository = this.pipeline.buildRepository("test").useLocalCache(builder -> builder.maximumWeight(1000)).build();
+
+        for (int i = 0; i < 100; i++) {
+            repository.insert(UUID.randomUUID(), DocumentData.create("payload", "x".repeat(100)));
+        }
+
+        CacheStats stats = awaitEvictions(repository, 1);
+        assertTrue(stats.evictionCount() > 0);
+        // Every document weighs more than its 100 characters
+        assertTrue(stats.evictionWeight() >= stats.evictionCount() * 100);
+        assertTrue(this.pipeline.metrics().total().localCache().evictionWeight() >= stats.evictionWeight());
+    }
+
+    @Test
+    public void testCombinedBounds() {
+        assertThrows(IllegalArgumentException.class, () -> LocalCacheConfig.builder().maximumSize(10).maximumWeight(1000).build());
+    }
+
+    @Test
+    public void testStats() {
+        DocumentRepository repository = this.pipeline.buildRepository("test").useLocalCache().build();
+        UUID uniqueId = UUID.randomUUID();
+        repository.insert(uniqueId, DocumentData.create("name", "Eric"));
+
+        assertTrue(repository.get(uniqueId).isPresent());
+        assertTrue(repository.get(uniqueId).isPresent());
+        assertTrue(repository.get(UUID.randomUUID()).isEmpty());
+
+        RepositoryMetrics metrics = repository.metrics();
+        assertEquals(2, metrics.localCache().hitCount());
+        assertEquals(1, metrics.localCache().missCount());
+        assertEquals(1, metrics.loadCount());
+
+        RepositoryMetrics total = this.pipeline.metrics().total();
+        assertEquals(2, total.localCache().hitCount());
+        assertEquals(1, total.localCache().missCount());
+        assertEquals(1, total.loadCount());
+    }
+
+    private static CacheStats awaitEvictions(DocumentRepository repository, long evictionCount) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (repository.metrics().localCache().evictionCount() < evictionCount && System.nanoTime() < deadline) {
+            // Reads let the cache catch up on its pending maintenance
+            repository.get(UUID.randomUUID());
+            Thread.sleep(10);
+        }
+        return repository.metrics().localCache();
+    }
+}
@@ -17,6 +17,7 @@
 package de.natrox.pipeline.h2;
 
 import com.zaxxer.hikari.HikariDataSource;
+import de.natrox.pipeline.sql.SqlDialect;
 import de.natrox.pipeline.sql.SqlStore;
 import org.jetbrains.annotations.NotNull;
 
@@ -25,7 +26,7 @@
 final class H2Store extends SqlStore {
 
     H2Store(HikariDataSource dataSource) {
-        super(dataSource);
+        super(dataSource, SqlDialect.H2);
     }
 
     @Override
@@ -16,13 +16,21 @@
 
 package de.natrox.pipeline.mongo;
 
+import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
 import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.UpdateOptions;
 import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import de.natrox.common.container.Pair;
 import de.natrox.common.validate.Check;
 import de.natrox.pipeline.part.store.StoreMap;
 import de.natrox.pipeline.repository.QueryStrategy;
+import de.natrox.pipeline.stream.CloseableIterator;
 import org.bson.Document;
 import org.bson.types.Binary;
 import org.jetbrains.annotations.NotNull;
@@ -34,6 +42,8 @@
 final class MongoMap implements StoreMap {
 
     private static final UpdateOptions INSERT_OR_REPLACE_OPTIONS = new UpdateOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED_BULK_OPTIONS = new BulkWriteOptions().ordered(false);
+    private static final int SCAN_BATCH_SIZE = 500;
 
     private final MongoCollection<Document> collection;
 
@@ -53,6 +63,22 @@ final class MongoMap implements StoreMap {
         return document.get("data", Binary.class).getData();
     }
 
+    @Override
+    public @NotNull Map<UUID, byte[]> getAll(@NotNull Collection<UUID> uniqueIds) {
+        Check.notNull(uniqueIds, "uniqueIds");
+        Map<UUID, byte[]> entries = new HashMap<>();
+        if (uniqueIds.isEmpty())
+            return entries;
+
+        try (var cursor = this.collection.find(Filters.in("key", uniqueIds)).iterator()) {
+            while (cursor.hasNext()) {
+                Document document = cursor.next();
+                entries.put(document.get("key", UUID.class), document.get("data", Binary.class).getData());
+            }
+        }
+        return entries;
+    }
+
     @Override
     public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -68,6 +94,26 @@ public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<Quer
         );
     }
 
+    @Override
+    public void putAll(@NotNull Map<UUID, byte[]> entries, @NotNull Set<QueryStrategy> strategies) {
+        Check.notNull(entries, "entries");
+        if (entries.isEmpty())
+            return;
+
+        List<WriteModel<Document>> writes = new ArrayList<>(entries.size());
+        for (Map.Entry<UUID, byte[]> entry : entries.entrySet()) {
+            writes.add(new UpdateOneModel<>(
+                Filters.eq("key", entry.getKey()),
+                Updates.combine(
+                    Updates.setOnInsert(new Document("key", entry.getKey())),
+                    Updates.set("data", new Binary(entry.getValue()))
+                ),
+                INSERT_OR_REPLACE_OPTIONS
+            ));
+        }
+        this.collection.bulkWrite(writes, UNORDERED_BULK_OPTIONS);
+    }
+
     @Override
     public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -117,6 +163,37 @@ public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> stra
         return entries;
     }
 
+    @Override
+    public @NotNull CloseableIterator<Pair<UUID, byte[]>> scan() {
+        return this.scan(this.collection.find());
+    }
+
+    @Override
+    public @NotNull CloseableIterator<Pair<UUID, byte[]>> scan(long skip, long limit) {
+        Check.argCondition(skip < 0, "skip can not be negative");
+        Check.argCondition(limit < 0, "limit can not be negative");
+        // A limit of 0 means no limit to MongoDB
+        if (limit == 0)
+            return CloseableIterator.of(Collections.emptyIterator());
+
+        // The natural order may change between queries, _id gives successive pages a stable one from its index
+        FindIterable<Document> documents = this.collection
+            .find()
+            .sort(Sorts.ascending("_id"))
+            .skip((int) Math.min(skip, Integer.MAX_VALUE));
+        if (limit < Integer.MAX_VALUE)
+            documents.limit((int) limit);
+        return this.scan(documents);
+    }
+
+    private CloseableIterator<Pair<UUID, byte[]>> scan(FindIterable<Document> documents) {
+        MongoCursor<Pair<UUID, byte[]>> cursor = documents
+            .batchSize(SCAN_BATCH_SIZE)
+            .map(document -> Pair.of(document.get("key", UUID.class), document.get("data", Binary.class).getData()))
+            .iterator();
+        return CloseableIterator.of(cursor, cursor::close);
+    }
+
     @Override
     public void remove(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -18,6 +18,7 @@
 
 import com.zaxxer.hikari.HikariDataSource;
 import de.natrox.pipeline.part.store.Store;
+import de.natrox.pipeline.sql.SqlDialect;
 import de.natrox.pipeline.sql.SqlStore;
 import org.jetbrains.annotations.NotNull;
 
@@ -36,6 +37,6 @@ public void close() {
 
     @Override
     public @NotNull Store createGlobalStorage() {
-        return new SqlStore(this.hikariDataSource);
+        return new SqlStore(this.hikariDataSource, SqlDialect.MYSQL);
     }
 }
@@ -16,15 +16,20 @@
 
 package de.natrox.pipeline.redis;
 
+import de.natrox.common.container.Pair;
 import de.natrox.common.validate.Check;
 import de.natrox.pipeline.part.config.GlobalCacheConfig;
 import de.natrox.pipeline.part.store.StoreMap;
 import de.natrox.pipeline.repository.QueryStrategy;
 import de.natrox.pipeline.repository.RepositoryOptions;
+import de.natrox.pipeline.stream.CloseableIterator;
 import org.jetbrains.annotations.NotNull;
+import org.redisson.api.RBatch;
 import org.redisson.api.RBinaryStream;
+import org.redisson.api.RBucketAsync;
 import org.redisson.api.RKeys;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.ByteArrayCodec;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
@@ -33,6 +38,8 @@
 
 final class RedisMap implements StoreMap {
 
+    private final static int SCAN_COUNT = 500;
+
     private final RedisStore redisStore;
     private final RedissonClient redissonClient;
     private final String mapName;
@@ -68,6 +75,35 @@ public byte[] get(@NotNull UUID uniqueId) {
         return stream.get();
     }
 
+    @Override
+    public @NotNull Map<UUID, byte[]> getAll(@NotNull Collection<UUID> uniqueIds) {
+        Check.notNull(uniqueIds, "uniqueIds");
+        Map<UUID, byte[]> entries = new HashMap<>();
+        if (uniqueIds.isEmpty())
+            return entries;
+
+        // A single MGET, the binary streams of this map are plain string values as long as they stay below 512 MB
+        Map<String, byte[]> values = this.redissonClient
+            .getBuckets(ByteArrayCodec.INSTANCE)
+            .get(uniqueIds.stream().map(this::key).toArray(String[]::new));
+
+        // The expire times of all hits are refreshed with one pipelined batch, like the single reads it does not wait
+        RBatch batch = this.redissonClient.createBatch();
+        boolean expire = !this.storageMode && this.expireAfterAccessNanos >= 0;
+        for (UUID uniqueId : uniqueIds) {
+            byte[] data = values.get(this.key(uniqueId));
+            if (data == null)
+                continue;
+
+            if (expire)
+                batch.getBucket(this.key(uniqueId), ByteArrayCodec.INSTANCE).expireAsync(Duration.of(this.expireAfterAccessNanos, ChronoUnit.NANOS));
+            entries.put(uniqueId, data);
+        }
+        if (expire && !entries.isEmpty())
+            batch.executeAsync();
+        return entries;
+    }
+
     @Override
     public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -78,6 +114,24 @@ public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<Quer
         this.updateExpireTime(stream, this.expireAfterWriteNanos);
     }
 
+    @Override
+    public void putAll(@NotNull Map<UUID, byte[]> entries, @NotNull Set<QueryStrategy> strategies) {
+        Check.notNull(entries, "entries");
+        if (entries.isEmpty())
+            return;
+
+        // All commands are pipelined and sent in one round trip
+        RBatch batch = this.redissonClient.createBatch();
+        boolean expire = !this.storageMode && this.expireAfterWriteNanos >= 0;
+        for (Map.Entry<UUID, byte[]> entry : entries.entrySet()) {
+            RBucketAsync<byte[]> bucket = batch.getBucket(this.key(entry.getKey()), ByteArrayCodec.INSTANCE);
+            bucket.setAsync(entry.getValue());
+            if (expire)
+                bucket.expireAsync(Duration.of(this.expireAfterWriteNanos, ChronoUnit.NANOS));
+        }
+        batch.execute();
+    }
+
     @Override
     public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -137,6 +191,17 @@ public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> stra
         return entries;
     }
 
+    @Override
+    public @NotNull CloseableIterator<Pair<UUID, byte[]>> scan() {
+        // SCAN walks the keyspace incrementally and keeps no state on the server, so there is nothing to release. A scan
+        // reads every document of the map and does not count as an access, it would otherwise keep them all from expiring
+        Iterator<String> keys = this.redissonClient
+            .getKeys()
+            .getKeysByPattern(this.key("*"), SCAN_COUNT)
+            .iterator();
+        return CloseableIterator.of(new ScanIterator(keys));
+    }
+
     @Override
     public void remove(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -151,13 +216,32 @@ public void clear() {
         redisKeys.delete(keys.toArray(new String[0]));
     }
 
+    /**
+     * Counts the documents of this map by walking the keys that match its prefix with SCAN. SCAN visits the whole
+     * keyspace of the Redis database, not only the keys of this map, so the cost grows with every key stored in the
+     * database. No key set or counter is kept instead, as the documents of a global cache expire on the server and
+     * would leave such a count behind.
+     */
     @Override
     public long size() {
-        return this.redisStore.keys(this.mapName).size();
+        // Counts while walking the keys with SCAN instead of collecting every key of the keyspace first
+        long size = 0;
+        for (String ignored : this.redissonClient.getKeys().getKeysByPattern(this.key("*"), SCAN_COUNT)) {
+            size++;
+        }
+        return size;
     }
 
     private RBinaryStream stream(UUID uniqueId) {
-        return this.redissonClient.getBinaryStream("Cache:" + this.mapName + ":" + uniqueId.toString());
+        return this.redissonClient.getBinaryStream(this.key(uniqueId));
+    }
+
+    private String key(UUID uniqueId) {
+        return this.key(uniqueId.toString());
+    }
+
+    private String key(String uniqueId) {
+        return "Cache:" + this.mapName + ":" + uniqueId;
     }
 
     private void updateExpireTime(RBinaryStream stream, long nanos) {
@@ -168,4 +252,50 @@ private void updateExpireTime(RBinaryStream stream, long nanos) {
 
         stream.expireAsync(Duration.of(nanos, ChronoUnit.NANOS));
     }
+
+    /**
+     * Reads the values of the scanned keys page by page with one MGET per page.
+     */
+    private final class ScanIterator implements Iterator<Pair<UUID, byte[]>> {
+
+        private final Iterator<String> keys;
+        private Iterator<Pair<UUID, byte[]>> page = Collections.emptyIterator();
+
+        ScanIterator(Iterator<String> keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!this.page.hasNext() && this.keys.hasNext()) {
+                this.page = this.nextPage();
+            }
+            return this.page.hasNext();
+        }
+
+        @Override
+        public Pair<UUID, byte[]> next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            return this.page.next();
+        }
+
+        private Iterator<Pair<UUID, byte[]>> nextPage() {
+            List<String> keys = new ArrayList<>(SCAN_COUNT);
+            while (keys.size() < SCAN_COUNT && this.keys.hasNext()) {
+                keys.add(this.keys.next());
+            }
+
+            Map<String, byte[]> values = RedisMap.this.redissonClient
+                .getBuckets(ByteArrayCodec.INSTANCE)
+                .get(keys.toArray(String[]::new));
+
+            List<Pair<UUID, byte[]>> entries = new ArrayList<>(values.size());
+            for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+                String key = entry.getKey();
+                entries.add(Pair.of(UUID.fromString(key.substring(key.lastIndexOf(':') + 1)), entry.getValue()));
+            }
+            return entries.iterator();
+        }
+    }
 }
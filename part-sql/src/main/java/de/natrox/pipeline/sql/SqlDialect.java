@@ -0,0 +1,112 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.sql;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The SQL dialect of the database behind a {@link SqlStore}, used for the statements that are not portable.
+ */
+public enum SqlDialect {
+
+    MYSQL {
+        @Override
+        public @NotNull String upsert(@NotNull String table, @NotNull String keyColumn, @NotNull String valueColumn) {
+            return "INSERT INTO `" + table + "` (`" + keyColumn + "`, `" + valueColumn + "`) VALUES (?, ?) "
+                + "ON DUPLICATE KEY UPDATE `" + valueColumn + "` = VALUES(`" + valueColumn + "`)";
+        }
+
+        @Override
+        public @NotNull String copy(@NotNull String source, @NotNull String target) {
+            return "INSERT INTO `" + target + "` (`key`, `data`) SELECT `key`, `data` FROM `" + source + "` WHERE `key` IS NOT NULL "
+                + "ON DUPLICATE KEY UPDATE `data` = VALUES(`data`)";
+        }
+
+        @Override
+        public int scanFetchSize() {
+            // Connector/J ignores positive fetch sizes unless useCursorFetch is enabled for the whole connection, this
+            // value streams the rows of this statement instead of reading the whole result set at once
+            return Integer.MIN_VALUE;
+        }
+    },
+    H2 {
+        @Override
+        public @NotNull String upsert(@NotNull String table, @NotNull String keyColumn, @NotNull String valueColumn) {
+            return "MERGE INTO `" + table + "` (`" + keyColumn + "`, `" + valueColumn + "`) KEY (`" + keyColumn + "`) VALUES (?, ?)";
+        }
+
+        @Override
+        public @NotNull String copy(@NotNull String source, @NotNull String target) {
+            return "MERGE INTO `" + target + "` (`key`, `data`) KEY (`key`) SELECT `key`, `data` FROM `" + source + "` WHERE `key` IS NOT NULL";
+        }
+    },
+    SQLITE {
+        @Override
+        public @NotNull String upsert(@NotNull String table, @NotNull String keyColumn, @NotNull String valueColumn) {
+            return "INSERT INTO `" + table + "` (`" + keyColumn + "`, `" + valueColumn + "`) VALUES (?, ?) "
+                + "ON CONFLICT (`" + keyColumn + "`) DO UPDATE SET `" + valueColumn + "` = excluded.`" + valueColumn + "`";
+        }
+
+        @Override
+        public @NotNull String copy(@NotNull String source, @NotNull String target) {
+            // The WHERE clause is required, SQLite would otherwise parse ON CONFLICT as a join constraint
+            return "INSERT INTO `" + target + "` (`key`, `data`) SELECT `key`, `data` FROM `" + source + "` WHERE `key` IS NOT NULL "
+                + "ON CONFLICT (`key`) DO UPDATE SET `data` = excluded.`data`";
+        }
+    };
+
+    /**
+     * Returns a statement that inserts the row with the given key and data in one round trip, or replaces the data
+     * if a row with that key already exists. The key is bound as the first parameter, the data as the second.
+     *
+     * @param table the name of the table
+     * @return the upsert statement
+     */
+    public @NotNull String upsert(@NotNull String table) {
+        return this.upsert(table, "key", "data");
+    }
+
+    /**
+     * Returns a statement like {@link #upsert(String)} for a table with other column names.
+     *
+     * @param table       the name of the table
+     * @param keyColumn   the name of the primary key column
+     * @param valueColumn the name of the column to insert or replace
+     * @return the upsert statement
+     */
+    public abstract @NotNull String upsert(@NotNull String table, @NotNull String keyColumn, @NotNull String valueColumn);
+
+    /**
+     * Returns a statement that copies all rows of the source table into the target table. Rows that already exist
+     * in the target or that occur more than once in the source are replaced, so the statement can be run again.
+     *
+     * @param source the name of the table to copy from
+     * @param target the name of the table to copy into
+     * @return the copy statement
+     */
+    public abstract @NotNull String copy(@NotNull String source, @NotNull String target);
+
+    /**
+     * Returns the fetch size that is set on the statements of {@link SqlMap#scan()}, so scans read their rows in
+     * chunks instead of all at once.
+     *
+     * @return the fetch size of scan statements
+     */
+    public int scanFetchSize() {
+        return 500;
+    }
+}
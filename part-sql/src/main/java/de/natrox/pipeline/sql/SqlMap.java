@@ -16,25 +16,35 @@
 
 package de.natrox.pipeline.sql;
 
+import de.natrox.common.consumer.ThrowableConsumer;
+import de.natrox.common.container.Pair;
 import de.natrox.common.validate.Check;
+import de.natrox.pipeline.exception.PartException;
 import de.natrox.pipeline.part.store.StoreMap;
 import de.natrox.pipeline.repository.QueryStrategy;
+import de.natrox.pipeline.stream.CloseableIterator;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.*;
 
 @SuppressWarnings("ClassCanBeRecord")
 final class SqlMap implements StoreMap {
 
+    // Keeps the number of bind parameters of one IN query well below the limits of all supported databases
+    private final static int MAX_BATCH_SIZE = 500;
     private final SqlStore sqlStore;
     private final String mapName;
+    private final String upsertQuery;
 
     SqlMap(SqlStore sqlStore, String mapName) {
         this.sqlStore = sqlStore;
         this.mapName = mapName;
-        this.sqlStore.executeUpdate("CREATE TABLE IF NOT EXISTS `" + mapName + "` (`key` TEXT, `data` LONGBLOB);");
+        this.upsertQuery = sqlStore.dialect().upsert(mapName);
     }
 
     @Override
@@ -47,22 +57,51 @@ final class SqlMap implements StoreMap {
         );
     }
 
+    @Override
+    public @NotNull Map<UUID, byte[]> getAll(@NotNull Collection<UUID> uniqueIds) {
+        Check.notNull(uniqueIds, "uniqueIds");
+        Map<UUID, byte[]> entries = new HashMap<>();
+        List<UUID> keys = List.copyOf(uniqueIds);
+
+        for (int start = 0; start < keys.size(); start += MAX_BATCH_SIZE) {
+            List<UUID> batch = keys.subList(start, Math.min(start + MAX_BATCH_SIZE, keys.size()));
+            this.sqlStore.executeQuery(
+                "SELECT `key`, `data` FROM `" + this.mapName + "` WHERE `key` IN (" + String.join(", ", Collections.nCopies(batch.size(), "?")) + ")",
+                resultSet -> {
+                    while (resultSet.next())
+                        entries.put(UUID.fromString(resultSet.getString("key")), resultSet.getBytes("data"));
+                    return null;
+                },
+                batch.toArray()
+            );
+        }
+        return entries;
+    }
+
     @Override
     public void put(@NotNull UUID uniqueId, byte @NotNull [] data, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
         Check.notNull(data, "data");
 
-        if (!this.contains(uniqueId)) {
-            this.sqlStore.executeUpdate("INSERT INTO " + this.mapName + " (`key`, `data`) VALUES (?, ?)", statement -> {
-                statement.setString(1, uniqueId.toString());
-                statement.setBytes(2, data);
-            });
-        } else {
-            this.sqlStore.executeUpdate("UPDATE " + this.mapName + " SET `data` = ? WHERE `key` = ?", statement -> {
-                statement.setString(1, uniqueId.toString());
-                statement.setBytes(2, data);
-            });
-        }
+        this.sqlStore.executeUpdate(this.upsertQuery, statement -> {
+            statement.setString(1, uniqueId.toString());
+            statement.setBytes(2, data);
+        });
+    }
+
+    @Override
+    public void putAll(@NotNull Map<UUID, byte[]> entries, @NotNull Set<QueryStrategy> strategies) {
+        Check.notNull(entries, "entries");
+        if (entries.isEmpty())
+            return;
+
+        this.sqlStore.executeBatch(this.upsertQuery, statement -> {
+            for (Map.Entry<UUID, byte[]> entry : entries.entrySet()) {
+                statement.setString(1, entry.getKey().toString());
+                statement.setBytes(2, entry.getValue());
+                statement.addBatch();
+            }
+        });
     }
 
     @Override
@@ -108,6 +147,42 @@ public boolean contains(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> stra
             });
     }
 
+    @Override
+    public @NotNull CloseableIterator<Pair<UUID, byte[]>> scan() {
+        return this.scan("SELECT `key`, `data` FROM `" + this.mapName + "`", statement -> {
+        });
+    }
+
+    @Override
+    public @NotNull CloseableIterator<Pair<UUID, byte[]>> scan(long skip, long limit) {
+        Check.argCondition(skip < 0, "skip can not be negative");
+        Check.argCondition(limit < 0, "limit can not be negative");
+        // LIMIT ... OFFSET ... is understood by MySQL, H2 and SQLite alike. Without an order the rows of successive pages
+        // could overlap, the primary key gives a stable one that the database reads from its index
+        return this.scan("SELECT `key`, `data` FROM `" + this.mapName + "` ORDER BY `key` LIMIT ? OFFSET ?", statement -> {
+            statement.setLong(1, limit);
+            statement.setLong(2, skip);
+        });
+    }
+
+    private CloseableIterator<Pair<UUID, byte[]>> scan(String query, ThrowableConsumer<PreparedStatement, SQLException> consumer) {
+        // The connection stays checked out until the iterator is exhausted or closed
+        Connection connection = this.sqlStore.connection();
+        try {
+            PreparedStatement statement = connection.prepareStatement(query);
+            statement.setFetchSize(this.sqlStore.dialect().scanFetchSize());
+            consumer.accept(statement);
+            return new ResultSetIterator(connection, statement.executeQuery());
+        } catch (SQLException exception) {
+            try {
+                connection.close();
+            } catch (SQLException closeException) {
+                exception.addSuppressed(closeException);
+            }
+            throw new PartException(exception);
+        }
+    }
+
     @Override
     public void remove(@NotNull UUID uniqueId, @NotNull Set<QueryStrategy> strategies) {
         Check.notNull(uniqueId, "uniqueId");
@@ -124,7 +199,10 @@ public void clear() {
 
     @Override
     public long size() {
-        return this.keys().size();
+        return this.sqlStore.executeQuery(
+            "SELECT COUNT(*) FROM `" + this.mapName + "`",
+            resultSet -> resultSet.next() ? resultSet.getLong(1) : 0L
+        );
     }
 
     private List<String> sqlKeys() {
@@ -138,4 +216,60 @@ private List<String> sqlKeys() {
                 return keys;
             });
     }
+
+    private final static class ResultSetIterator implements CloseableIterator<Pair<UUID, byte[]>> {
+
+        private final Connection connection;
+        private final ResultSet resultSet;
+        private Pair<UUID, byte[]> next;
+        private boolean closed;
+
+        ResultSetIterator(Connection connection, ResultSet resultSet) {
+            this.connection = connection;
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.next != null)
+                return true;
+            if (this.closed)
+                return false;
+
+            try {
+                if (!this.resultSet.next()) {
+                    this.close();
+                    return false;
+                }
+                this.next = Pair.of(UUID.fromString(this.resultSet.getString("key")), this.resultSet.getBytes("data"));
+                return true;
+            } catch (SQLException exception) {
+                this.close();
+                throw new PartException(exception);
+            }
+        }
+
+        @Override
+        public Pair<UUID, byte[]> next() {
+            if (!this.hasNext())
+                throw new NoSuchElementException();
+            Pair<UUID, byte[]> next = this.next;
+            this.next = null;
+            return next;
+        }
+
+        @Override
+        public void close() {
+            if (this.closed)
+                return;
+            this.closed = true;
+
+            // Closing the pooled connection closes its statement and result set as well
+            try {
+                this.connection.close();
+            } catch (SQLException exception) {
+                throw new PartException(exception);
+            }
+        }
+    }
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2020-2022 NatroxMC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.natrox.pipeline.sql;
+
+import de.natrox.pipeline.exception.PartException;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates the tables of the {@link SqlMap}s and migrates tables of older schema versions.
+ * <p>
+ * The schema version of every table is recorded in {@link #SCHEMA_TABLE}. Version 1 keys the table by a
+ * {@code CHAR(36)} primary key. Tables of earlier releases have no version and no key and are migrated in steps
+ * that can each be repeated: the rows are copied into a new table, the old table is dropped and the new table takes
+ * its name. If a migration is interrupted, the next {@link #prepare(String)} continues with the unfinished step.
+ * <p>
+ * Several nodes may open the same table at once, so the migration of a table runs behind a row in
+ * {@link #LOCK_TABLE}. Nodes that find the row wait until the migration is done, a row older than
+ * {@link #LOCK_TIMEOUT_MILLIS} is considered left behind by a crashed node and is taken over.
+ * <p>
+ * Nodes of earlier releases neither take the lock nor know the migrated table, rows they write to the old table
+ * after it was copied are lost. Stop all nodes of earlier releases before the first node of this release opens the
+ * tables, a rolling upgrade that keeps old and new nodes writing side by side is not supported.
+ */
+final class SqlSchema {
+
+    static final int SCHEMA_VERSION = 1;
+    static final String SCHEMA_TABLE = "pipeline_schema";
+    static final String LOCK_TABLE = "pipeline_schema_lock";
+    static final String MIGRATION_SUFFIX = "__migration";
+    static final long LOCK_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+    static final long LOCK_RETRY_MILLIS = 100;
+
+    private final SqlStore sqlStore;
+
+    SqlSchema(SqlStore sqlStore) {
+        this.sqlStore = sqlStore;
+    }
+
+    static boolean isInternal(@NotNull String table) {
+        return table.equalsIgnoreCase(SCHEMA_TABLE) || table.equalsIgnoreCase(LOCK_TABLE) || table.endsWith(MIGRATION_SUFFIX);
+    }
+
+    void prepare(@NotNull String mapName) {
+        this.sqlStore.executeUpdate("CREATE TABLE IF NOT EXISTS `" + SCHEMA_TABLE + "` (`name` VARCHAR(255) NOT NULL PRIMARY KEY, `version` INT NOT NULL)");
+        if (this.checkVersion(mapName))
+            return;
+
+        this.sqlStore.executeUpdate("CREATE TABLE IF NOT EXISTS `" + LOCK_TABLE + "` (`name` VARCHAR(255) NOT NULL PRIMARY KEY, `locked_at` BIGINT NOT NULL)");
+        this.lock(mapName);
+        try {
+            // Another node may have finished the migration while this one was waiting for the lock
+            if (!this.checkVersion(mapName))
+                this.migrate(mapName);
+        } finally {
+            this.unlock(mapName);
+        }
+    }
+
+    private void migrate(String mapName) {
+        Set<String> tables = this.sqlStore.tables();
+        String migrationTable = mapName + MIGRATION_SUFFIX;
+        String existingTable = this.find(tables, mapName);
+
+        if (existingTable == null) {
+            if (this.find(tables, migrationTable) != null) {
+                // The migration was interrupted after the old table had been dropped
+                this.rename(migrationTable, mapName);
+            } else {
+                this.create(mapName);
+            }
+        } else if (!this.hasPrimaryKey(existingTable)) {
+            this.create(migrationTable);
+            this.sqlStore.executeUpdate(this.sqlStore.dialect().copy(mapName, migrationTable));
+            this.sqlStore.executeUpdate("DROP TABLE IF EXISTS `" + mapName + "`");
+            this.rename(migrationTable, mapName);
+        }
+
+        this.sqlStore.executeUpdate(this.sqlStore.dialect().upsert(SCHEMA_TABLE, "name", "version"), statement -> {
+            statement.setString(1, mapName);
+            statement.setInt(2, SCHEMA_VERSION);
+        });
+    }
+
+    void remove(@NotNull String mapName) {
+        this.sqlStore.executeUpdate("DROP TABLE IF EXISTS `" + mapName + MIGRATION_SUFFIX + "`");
+        if (this.find(this.sqlStore.tables(), SCHEMA_TABLE) != null)
+            this.sqlStore.executeUpdate("DELETE FROM `" + SCHEMA_TABLE + "` WHERE `name` = ?", mapName);
+    }
+
+    // Whether the table is up-to-date
+    private boolean checkVersion(String mapName) {
+        int version = this.version(mapName);
+        if (version > SCHEMA_VERSION)
+            throw new PartException("Table " + mapName + " has schema version " + version + ", but only version " + SCHEMA_VERSION + " is supported");
+        return version == SCHEMA_VERSION;
+    }
+
+    private void lock(String mapName) {
+        long deadline = System.currentTimeMillis() + LOCK_TIMEOUT_MILLIS + LOCK_RETRY_MILLIS;
+        while (true) {
+            this.sqlStore.executeUpdate("DELETE FROM `" + LOCK_TABLE + "` WHERE `name` = ? AND `locked_at` < ?", statement -> {
+                statement.setString(1, mapName);
+                statement.setLong(2, System.currentTimeMillis() - LOCK_TIMEOUT_MILLIS);
+            });
+
+            try {
+                this.sqlStore.executeUpdate("INSERT INTO `" + LOCK_TABLE + "` (`name`, `locked_at`) VALUES (?, ?)", statement -> {
+                    statement.setString(1, mapName);
+                    statement.setLong(2, System.currentTimeMillis());
+                });
+                return;
+            } catch (PartException exception) {
+                // The key is taken, another node migrates the table
+                if (System.currentTimeMillis() > deadline)
+                    throw new PartException("Timed out waiting for the migration of table " + mapName, exception);
+            }
+
+            try {
+                Thread.sleep(LOCK_RETRY_MILLIS);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new PartException("Interrupted while waiting for the migration of table " + mapName, exception);
+            }
+        }
+    }
+
+    private void unlock(String mapName) {
+        this.sqlStore.executeUpdate("DELETE FROM `" + LOCK_TABLE + "` WHERE `name` = ?", mapName);
+    }
+
+    private int version(String mapName) {
+        return this.sqlStore.executeQuery(
+            "SELECT `version` FROM `" + SCHEMA_TABLE + "` WHERE `name` = ?",
+            resultSet -> resultSet.next() ? resultSet.getInt("version") : 0,
+            mapName
+        );
+    }
+
+    private void create(String table) {
+        this.sqlStore.executeUpdate("CREATE TABLE IF NOT EXISTS `" + table + "` (`key` CHAR(36) NOT NULL PRIMARY KEY, `data` LONGBLOB)");
+    }
+
+    private void rename(String from, String to) {
+        this.sqlStore.executeUpdate("ALTER TABLE `" + from + "` RENAME TO `" + to + "`");
+    }
+
+    // Some databases report quoted identifiers in upper case
+    private String find(Set<String> tables, String table) {
+        for (String name : tables) {
+            if (name.equalsIgnoreCase(table))
+                return name;
+        }
+        return null;
+    }
+
+    private boolean hasPrimaryKey(String table) {
+        try (
+            Connection connection = this.sqlStore.connection();
+            ResultSet keys = connection.getMetaData().getPrimaryKeys(connection.getCatalog(), null, table)
+        ) {
+            return keys.next();
+        } catch (SQLException exception) {
+            throw new PartException(exception);
+        }
+    }
+}
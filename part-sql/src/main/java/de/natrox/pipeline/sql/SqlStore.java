@@ -19,6 +19,7 @@
 import com.zaxxer.hikari.HikariDataSource;
 import de.natrox.common.consumer.ThrowableConsumer;
 import de.natrox.common.function.ThrowableFunction;
+import de.natrox.common.validate.Check;
 import de.natrox.pipeline.exception.PartException;
 import de.natrox.pipeline.part.store.AbstractStore;
 import de.natrox.pipeline.part.store.StoreMap;
@@ -38,18 +39,35 @@ public class SqlStore extends AbstractStore {
 
     private static final String[] TABLE_TYPE = new String[]{"TABLE"};
     protected final HikariDataSource dataSource;
+    protected final SqlDialect dialect;
+    private final SqlSchema schema;
 
-    public SqlStore(HikariDataSource dataSource) {
+    public SqlStore(@NotNull HikariDataSource dataSource, @NotNull SqlDialect dialect) {
+        Check.notNull(dataSource, "dataSource");
+        Check.notNull(dialect, "dialect");
         this.dataSource = dataSource;
+        this.dialect = dialect;
+        this.schema = new SqlSchema(this);
     }
 
     @Override
     protected StoreMap createMap(@NotNull String mapName, @NotNull RepositoryOptions options) {
+        this.schema.prepare(mapName);
         return new SqlMap(this, mapName);
     }
 
+    public @NotNull SqlDialect dialect() {
+        return this.dialect;
+    }
+
     @Override
     public @NotNull Set<String> maps() {
+        Set<String> names = this.tables();
+        names.removeIf(SqlSchema::isInternal);
+        return names;
+    }
+
+    @NotNull Set<String> tables() {
         try (
             Connection connection = this.connection();
             ResultSet meta = connection.getMetaData().getTables(connection.getCatalog(), null, "%", TABLE_TYPE)
@@ -78,6 +96,7 @@ public boolean hasMap(@NotNull String name) {
     @Override
     public void removeMap(@NotNull String mapName) {
         this.executeUpdate("DROP TABLE IF EXISTS `" + mapName + "`");
+        this.schema.remove(mapName);
         this.storeMapRegistry.remove(mapName);
     }
 
@@ -110,6 +129,29 @@ public int executeUpdate(@NotNull String query, @NotNull Object... objects) {
         });
     }
 
+    /**
+     * Executes the query once for every parameter set the consumer adds with {@link PreparedStatement#addBatch()},
+     * as one batch in a single transaction.
+     */
+    public int[] executeBatch(@NotNull String query, @NotNull ThrowableConsumer<PreparedStatement, SQLException> consumer) {
+        try (Connection con = this.connection(); PreparedStatement statement = con.prepareStatement(query)) {
+            con.setAutoCommit(false);
+            try {
+                consumer.accept(statement);
+                int[] result = statement.executeBatch();
+                con.commit();
+                return result;
+            } catch (SQLException exception) {
+                con.rollback();
+                throw exception;
+            } finally {
+                con.setAutoCommit(true);
+            }
+        } catch (SQLException exception) {
+            throw new PartException(exception);
+        }
+    }
+
     public <T> T executeQuery(@NotNull String query, @NotNull ThrowableFunction<ResultSet, T, SQLException> callback, @NotNull Object... objects) {
         try (var con = this.connection(); PreparedStatement statement = con.prepareStatement(query)) {
             // write all parameters
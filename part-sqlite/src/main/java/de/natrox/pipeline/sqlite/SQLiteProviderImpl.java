@@ -19,6 +19,7 @@
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import de.natrox.pipeline.part.store.Store;
+import de.natrox.pipeline.sql.SqlDialect;
 import de.natrox.pipeline.sql.SqlStore;
 import org.jetbrains.annotations.NotNull;
 import org.sqlite.SQLiteDataSource;
@@ -63,6 +64,6 @@ public void close() {
 
     @Override
     public @NotNull Store createGlobalStorage() {
-        return new SqlStore(this.hikariDataSource);
+        return new SqlStore(this.hikariDataSource, SqlDialect.SQLITE);
     }
 }